@@ -0,0 +1,99 @@
+package com.opticoretechnologies.identity.client;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local token verification with the cached, pre-built verifiers of {@link JwksCache} against
+ * building the verifier per token and against parsing the JWK set per token, which is what a
+ * consumer without a key cache does on top of the network round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwksVerificationBenchmark {
+    private FakeIdentityService identityService;
+    private JwksCache cache;
+    private IdentityTokenVerifier verifier;
+    private RSAKey publicKey;
+    private String jwksJson;
+    private String keyId;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        identityService = new FakeIdentityService();
+        cache = new JwksCache(HttpClient.newHttpClient(), identityService.jwksUri(), identityService.rolesUri(),
+                Duration.ofHours(1), Duration.ofSeconds(30), Duration.ofSeconds(5));
+        cache.refresh();
+        verifier = new IdentityTokenVerifier(cache, Duration.ofSeconds(30), Clock.systemUTC());
+        keyId = identityService.activeKeyId();
+        jwksJson = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(identityService.jwksUri()).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        publicKey = JWKSet.parse(jwksJson).getKeyByKeyId(keyId).toRSAKey();
+        token = identityService.sign(new JWTClaimsSet.Builder()
+                .subject("alice")
+                .expirationTime(Date.from(Instant.now().plus(Duration.ofDays(1))))
+                .claim(IdentityClaimNames.EMAIL, "alice@example.com")
+                .claim(IdentityClaimNames.ROLES, List.of("ROLE_USER"))
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        identityService.close();
+    }
+
+    @Benchmark
+    public Object lookupCachedVerifier() {
+        return cache.verifier(keyId);
+    }
+
+    @Benchmark
+    public IdentityTokenVerifier.Verification verifyWithCachedVerifier() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public boolean verifyBuildingVerifier() throws ParseException, JOSEException {
+        return SignedJWT.parse(token).verify(new RSASSAVerifier(publicKey));
+    }
+
+    @Benchmark
+    public boolean verifyParsingJwks() throws ParseException, JOSEException {
+        SignedJWT jwt = SignedJWT.parse(token);
+        RSAKey key = JWKSet.parse(JSONObjectUtils.parse(jwksJson)).getKeyByKeyId(jwt.getHeader().getKeyID()).toRSAKey();
+        return jwt.verify(new RSASSAVerifier(key));
+    }
+}
@@ -0,0 +1,24 @@
+package com.opticoretechnologies.identity.client;
+
+/**
+ * Names of the claims in identity service access tokens, shared by the issuing service and
+ * every verifier so the two cannot drift apart.
+ */
+public final class IdentityClaimNames {
+    /** Username. */
+    public static final String SUBJECT = "sub";
+    public static final String EMAIL = "email";
+    /** Role names; in compact tokens only the roles missing from the role dictionary. */
+    public static final String ROLES = "roles";
+    /** Role dictionary version of a compact token, see {@link RoleBits}. */
+    public static final String ROLE_VERSION = "rv";
+    /** Role bitmask of a compact token, see {@link RoleBits}. */
+    public static final String ROLE_BITS = "rb";
+    /** User id, a UUID. */
+    public static final String USER_ID = "uid";
+    /** The user's token version at issue time; the service rejects tokens below the current one. */
+    public static final String TOKEN_VERSION = "tv";
+
+    private IdentityClaimNames() {
+    }
+}
@@ -0,0 +1,50 @@
+package com.opticoretechnologies.identity.client;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The claims of a verified identity service access token, with roles already decoded from
+ * either the plain or the compact form.
+ *
+ * @param userId       null for tokens that do not carry the user id
+ * @param tokenVersion null for tokens that do not carry the token version
+ */
+public record IdentityClaims(String subject, String email, UUID userId, Integer tokenVersion, List<String> roles,
+                             Instant issuedAt, Instant expiresAt) {
+
+    /**
+     * @param dictionary needed only for tokens with compact roles; may be null otherwise
+     * @throws ParseException           if a claim has the wrong type
+     * @throws IllegalArgumentException if the compact roles cannot be decoded with {@code dictionary}
+     */
+    public static IdentityClaims from(JWTClaimsSet claims, PublishedRoleDictionary dictionary) throws ParseException {
+        List<String> roles = claims.getStringListClaim(IdentityClaimNames.ROLES);
+        String roleBits = claims.getStringClaim(IdentityClaimNames.ROLE_BITS);
+        if (roleBits != null) {
+            if (dictionary == null) {
+                throw new IllegalArgumentException("Token has compact roles but no role dictionary is loaded");
+            }
+            roles = dictionary.decode(claims.getStringClaim(IdentityClaimNames.ROLE_VERSION), roleBits, roles);
+        } else {
+            roles = roles == null ? List.of() : List.copyOf(roles);
+        }
+        String userId = claims.getStringClaim(IdentityClaimNames.USER_ID);
+        return new IdentityClaims(
+                claims.getSubject(),
+                claims.getStringClaim(IdentityClaimNames.EMAIL),
+                userId == null ? null : UUID.fromString(userId),
+                claims.getIntegerClaim(IdentityClaimNames.TOKEN_VERSION),
+                roles,
+                claims.getIssueTime() == null ? null : claims.getIssueTime().toInstant(),
+                claims.getExpirationTime() == null ? null : claims.getExpirationTime().toInstant());
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+}
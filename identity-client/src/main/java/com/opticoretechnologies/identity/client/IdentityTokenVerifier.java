@@ -0,0 +1,104 @@
+package com.opticoretechnologies.identity.client;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Verifies identity service access tokens locally, against the keys in a {@link JwksCache}.
+ * <p>
+ * Checks key ID, signature and expiry, in the same order as the service. What a consumer
+ * cannot check locally is revocation: a token issued before its user's token version was bumped
+ * stays valid here until it expires. Consumers that need that guarantee call the service's
+ * introspection endpoint instead.
+ */
+public class IdentityTokenVerifier {
+    private static final Logger log = LoggerFactory.getLogger(IdentityTokenVerifier.class);
+
+    private final JwksCache jwksCache;
+    private final Duration clockSkew;
+    private final Clock clock;
+
+    public IdentityTokenVerifier(JwksCache jwksCache, Duration clockSkew, Clock clock) {
+        this.jwksCache = jwksCache;
+        this.clockSkew = clockSkew;
+        this.clock = clock;
+    }
+
+    /**
+     * Never throws; the outcome says why a token was rejected.
+     */
+    public Verification verify(String token) {
+        SignedJWT signedJWT;
+        JWTClaimsSet claimsSet;
+        try {
+            signedJWT = SignedJWT.parse(token);
+            claimsSet = signedJWT.getJWTClaimsSet();
+        } catch (ParseException e) {
+            log.debug("Could not parse JWT token: {}", e.getMessage());
+            return Verification.failed(Verification.Outcome.MALFORMED);
+        }
+
+        String keyId = signedJWT.getHeader().getKeyID();
+        if (keyId == null) {
+            return Verification.failed(Verification.Outcome.MISSING_KID);
+        }
+        JWSVerifier verifier = jwksCache.verifier(keyId);
+        if (verifier == null) {
+            return Verification.failed(Verification.Outcome.UNKNOWN_KID);
+        }
+        try {
+            if (!signedJWT.verify(verifier)) {
+                return Verification.failed(Verification.Outcome.BAD_SIGNATURE);
+            }
+        } catch (JOSEException e) {
+            log.debug("JWT signature verification failed: {}", e.getMessage());
+            return Verification.failed(Verification.Outcome.BAD_SIGNATURE);
+        }
+
+        Date expiration = claimsSet.getExpirationTime();
+        if (expiration == null || expiration.toInstant().plus(clockSkew).isBefore(Instant.now(clock))) {
+            return Verification.failed(Verification.Outcome.EXPIRED);
+        }
+        try {
+            String roleVersion = claimsSet.getStringClaim(IdentityClaimNames.ROLE_VERSION);
+            PublishedRoleDictionary dictionary = roleVersion == null ? null : jwksCache.roleDictionary(roleVersion);
+            return new Verification(Verification.Outcome.VALID, IdentityClaims.from(claimsSet, dictionary));
+        } catch (ParseException | IllegalArgumentException e) {
+            log.debug("Malformed claims in access token: {}", e.getMessage());
+            return Verification.failed(Verification.Outcome.MALFORMED);
+        }
+    }
+
+    /**
+     * Result of verifying an access token. Claims are only present when the token is valid.
+     */
+    public record Verification(Outcome outcome, IdentityClaims claims) {
+
+        public enum Outcome {
+            VALID,
+            MALFORMED,
+            MISSING_KID,
+            UNKNOWN_KID,
+            BAD_SIGNATURE,
+            EXPIRED
+        }
+
+        static Verification failed(Outcome outcome) {
+            return new Verification(outcome, null);
+        }
+
+        public boolean isValid() {
+            return outcome == Outcome.VALID;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.opticoretechnologies.identity.client;
+
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local copy of the identity service's JWK set, with one ready-made verifier per key ID.
+ * <p>
+ * Readers never lock and never allocate: the verifiers live in an immutable map that a fetch
+ * replaces atomically. A background thread revalidates the set every {@code refreshInterval}
+ * with {@code If-None-Match}, so an unchanged set costs a 304 and no parsing. Verifiers are
+ * built once per key ID and carried over across fetches; the service never reuses a key ID
+ * for different key material.
+ * <p>
+ * A token signed with a key that is not in the local set usually means the service rotated
+ * since the last refresh, so {@link #verifier(String)} fetches the set at once. Those forced
+ * fetches are rate-limited to one per {@code minRefetchInterval}, so a flood of tokens with
+ * made-up key IDs cannot turn into a flood of requests to the identity service. Fetches are
+ * serialized on a {@link ReentrantLock}; callers that miss while a fetch is running wait for
+ * it and then see its result.
+ * <p>
+ * The role dictionary for compact role claims is cached the same way when a roles URI is set.
+ */
+public class JwksCache implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(JwksCache.class);
+
+    private final HttpClient httpClient;
+    private final URI jwksUri;
+    private final URI rolesUri;
+    private final Duration refreshInterval;
+    private final long minRefetchIntervalNanos;
+    private final Duration requestTimeout;
+
+    private final ReentrantLock fetchLock = new ReentrantLock();
+    private volatile Keys keys = new Keys(Map.of(), null);
+    private volatile Roles roles = new Roles(null, null);
+    private long lastForcedKeysFetch;
+    private long lastForcedRolesFetch;
+    private boolean keysForced;
+    private boolean rolesForced;
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    /**
+     * @param rolesUri null when consumers never see compact role claims
+     */
+    public JwksCache(HttpClient httpClient, URI jwksUri, URI rolesUri, Duration refreshInterval,
+                     Duration minRefetchInterval, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.jwksUri = jwksUri;
+        this.rolesUri = rolesUri;
+        this.refreshInterval = refreshInterval;
+        this.minRefetchIntervalNanos = minRefetchInterval.toNanos();
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Fetches the key set once and starts the background refresh. A failed first fetch is only
+     * logged: the next refresh, or the first token with an unknown key ID, tries again.
+     */
+    public void start() {
+        refresh();
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                task -> Thread.ofPlatform().name("identity-jwks-refresh").daemon().unstarted(task));
+        long interval = refreshInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Revalidates the key set and the role dictionary.
+     *
+     * @return false if a fetch failed; the previous copy is kept in that case
+     */
+    public boolean refresh() {
+        fetchLock.lock();
+        try {
+            boolean ok = fetchKeys();
+            if (rolesUri != null) {
+                ok &= fetchRoles();
+            }
+            return ok;
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    /**
+     * The verifier for {@code keyId}, fetching the key set first if the key is not known yet
+     * and no forced fetch happened within the last {@code minRefetchInterval}.
+     *
+     * @return null if the key is still unknown
+     */
+    public JWSVerifier verifier(String keyId) {
+        JWSVerifier verifier = keys.verifiers().get(keyId);
+        if (verifier != null) {
+            return verifier;
+        }
+        fetchLock.lock();
+        try {
+            verifier = keys.verifiers().get(keyId);
+            if (verifier != null) {
+                return verifier;
+            }
+            long now = System.nanoTime();
+            if (keysForced && now - lastForcedKeysFetch < minRefetchIntervalNanos) {
+                rateLimited.increment();
+                return null;
+            }
+            keysForced = true;
+            lastForcedKeysFetch = now;
+            log.debug("Unknown key ID {}, fetching the JWK set", keyId);
+            fetchKeys();
+            return keys.verifiers().get(keyId);
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    /**
+     * The role dictionary that knows {@code version}, fetching it first under the same rate
+     * limit as unknown key IDs if the cached one does not.
+     *
+     * @return the cached dictionary, which may not know the version, or null if none was loaded
+     */
+    public PublishedRoleDictionary roleDictionary(String version) {
+        PublishedRoleDictionary dictionary = roles.dictionary();
+        if (rolesUri == null || (dictionary != null && dictionary.knows(version))) {
+            return dictionary;
+        }
+        fetchLock.lock();
+        try {
+            dictionary = roles.dictionary();
+            if (dictionary != null && dictionary.knows(version)) {
+                return dictionary;
+            }
+            long now = System.nanoTime();
+            if (rolesForced && now - lastForcedRolesFetch < minRefetchIntervalNanos) {
+                rateLimited.increment();
+                return dictionary;
+            }
+            rolesForced = true;
+            lastForcedRolesFetch = now;
+            fetchRoles();
+            return roles.dictionary();
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    public int keyCount() {
+        return keys.verifiers().size();
+    }
+
+    /**
+     * Requests sent to the identity service, including the ones answered with 304.
+     */
+    public long fetchCount() {
+        return fetches.sum();
+    }
+
+    public long notModifiedCount() {
+        return notModified.sum();
+    }
+
+    /**
+     * Lookups of unknown key IDs or role versions that were not allowed to trigger a fetch.
+     */
+    public long rateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    private boolean fetchKeys() {
+        Keys current = keys;
+        try {
+            HttpResponse<String> response = get(jwksUri, current.eTag());
+            if (response == null) {
+                return true;
+            }
+            JWKSet jwkSet = JWKSet.parse(response.body());
+            Map<String, JWSVerifier> verifiers = new HashMap<>();
+            for (JWK jwk : jwkSet.getKeys()) {
+                if (!(jwk instanceof RSAKey rsaKey) || jwk.getKeyID() == null) {
+                    continue;
+                }
+                JWSVerifier verifier = current.verifiers().get(jwk.getKeyID());
+                verifiers.put(jwk.getKeyID(), verifier != null ? verifier : new RSASSAVerifier(rsaKey.toRSAPublicKey()));
+            }
+            keys = new Keys(Map.copyOf(verifiers), response.headers().firstValue("ETag").orElse(null));
+            log.debug("Loaded {} keys from {}", verifiers.size(), jwksUri);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.warn("Failed to fetch the JWK set from {}: {}", jwksUri, e.toString());
+            return false;
+        }
+    }
+
+    private boolean fetchRoles() {
+        try {
+            HttpResponse<String> response = get(rolesUri, roles.eTag());
+            if (response == null) {
+                return true;
+            }
+            roles = new Roles(PublishedRoleDictionary.parse(response.body()),
+                    response.headers().firstValue("ETag").orElse(null));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.warn("Failed to fetch the role dictionary from {}: {}", rolesUri, e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * @return the response, or null if the server answered 304 to {@code eTag}
+     */
+    private HttpResponse<String> get(URI uri, String eTag) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(requestTimeout).GET();
+        if (eTag != null) {
+            request.header("If-None-Match", eTag);
+        }
+        fetches.increment();
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 304) {
+            notModified.increment();
+            return null;
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Unexpected status " + response.statusCode());
+        }
+        return response;
+    }
+
+    private record Keys(Map<String, JWSVerifier> verifiers, String eTag) {
+    }
+
+    private record Roles(PublishedRoleDictionary dictionary, String eTag) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.opticoretechnologies.identity.client;
+
+import com.nimbusds.jose.util.JSONObjectUtils;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The role dictionary as published by the identity service at {@code /.well-known/roles.json},
+ * used to decode the compact {@code rv}/{@code rb} role claims. Every prefix of the dictionary
+ * is a valid older version, so tokens issued before roles were appended still decode.
+ */
+public final class PublishedRoleDictionary {
+    private final List<String> roles;
+    private final Map<String, Integer> sizeByVersion;
+    private final String version;
+
+    public PublishedRoleDictionary(List<String> roles) {
+        if (roles.size() > RoleBits.MAX_ROLES) {
+            throw new IllegalArgumentException("A role dictionary holds at most " + RoleBits.MAX_ROLES + " roles, got " + roles.size());
+        }
+        this.roles = List.copyOf(roles);
+        this.sizeByVersion = new HashMap<>();
+        for (int size = 0; size <= roles.size(); size++) {
+            sizeByVersion.put(RoleBits.version(this.roles.subList(0, size)), size);
+        }
+        this.version = RoleBits.version(this.roles);
+    }
+
+    /**
+     * @throws ParseException if the document is not a role dictionary
+     */
+    public static PublishedRoleDictionary parse(String json) throws ParseException {
+        Map<String, Object> object = JSONObjectUtils.parse(json);
+        List<String> roles = JSONObjectUtils.getStringList(object, "roles");
+        if (roles == null) {
+            throw new ParseException("Role dictionary has no roles", 0);
+        }
+        PublishedRoleDictionary dictionary = new PublishedRoleDictionary(roles);
+        String version = JSONObjectUtils.getString(object, "version");
+        if (version != null && !version.equals(dictionary.version())) {
+            throw new ParseException("Role dictionary version " + version + " does not match its roles", 0);
+        }
+        return dictionary;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public boolean knows(String version) {
+        return sizeByVersion.containsKey(version);
+    }
+
+    /**
+     * Decodes the bitmask of a token issued under {@code tokenVersion}, adding any roles
+     * carried by name.
+     *
+     * @throws IllegalArgumentException if the version is unknown or the bitmask names a role
+     *                                  that did not exist in that version
+     */
+    public List<String> decode(String tokenVersion, String bits, List<String> others) {
+        Integer size = tokenVersion == null ? null : sizeByVersion.get(tokenVersion);
+        if (size == null) {
+            throw new IllegalArgumentException("Unknown role dictionary version " + tokenVersion);
+        }
+        long mask = RoleBits.decode(bits);
+        if (size < RoleBits.MAX_ROLES && (mask >>> size) != 0) {
+            throw new IllegalArgumentException("Role bitmask exceeds dictionary version " + tokenVersion);
+        }
+        List<String> decoded = new ArrayList<>(Long.bitCount(mask) + (others == null ? 0 : others.size()));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            decoded.add(roles.get(Long.numberOfTrailingZeros(remaining)));
+        }
+        if (others != null) {
+            decoded.addAll(others);
+        }
+        return List.copyOf(decoded);
+    }
+}
@@ -0,0 +1,58 @@
+package com.opticoretechnologies.identity.client;
+
+import com.nimbusds.jose.util.Base64URL;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Wire format of compact role claims. A compact token carries its roles as a bitmask
+ * ({@code rb}: base64url, little-endian, bit {@code i} is the {@code i}-th role of the dictionary)
+ * plus the dictionary version ({@code rv}): the first 6 bytes of the SHA-256 of the role names
+ * joined by newlines, in hex. Dictionaries are append-only, so every prefix of the current
+ * dictionary is an older version that tokens may still name.
+ */
+public final class RoleBits {
+    public static final int MAX_ROLES = 64;
+    private static final int VERSION_BYTES = 6;
+
+    private RoleBits() {
+    }
+
+    public static String version(List<String> roles) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(String.join("\n", roles).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, VERSION_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static String encode(long mask) {
+        int length = Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(mask) + 7) / 8);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (mask >>> (8 * i));
+        }
+        return Base64URL.encode(bytes).toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bitmask is empty or longer than 8 bytes
+     */
+    public static long decode(String bits) {
+        byte[] bytes = new Base64URL(bits).decode();
+        if (bytes.length == 0 || bytes.length > Long.BYTES) {
+            throw new IllegalArgumentException("Role bitmask must be 1 to " + Long.BYTES + " bytes, was " + bytes.length);
+        }
+        long mask = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            mask |= (bytes[i] & 0xFFL) << (8 * i);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,38 @@
+package com.opticoretechnologies.identity.client.autoconfigure;
+
+import com.opticoretechnologies.identity.client.IdentityTokenVerifier;
+import com.opticoretechnologies.identity.client.JwksCache;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import java.net.http.HttpClient;
+import java.time.Clock;
+
+/**
+ * Provides a started {@link JwksCache} and an {@link IdentityTokenVerifier} once
+ * {@code identity.client.jwks-uri} is set. Either bean can be replaced by declaring one.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "identity.client", name = "jwks-uri")
+@EnableConfigurationProperties(IdentityClientProperties.class)
+public class IdentityClientAutoConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public JwksCache identityJwksCache(IdentityClientProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        return new JwksCache(httpClient, properties.getJwksUri(), properties.getRolesUri(),
+                properties.getRefreshInterval(), properties.getMinRefetchInterval(), properties.getRequestTimeout());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public IdentityTokenVerifier identityTokenVerifier(JwksCache jwksCache, IdentityClientProperties properties) {
+        return new IdentityTokenVerifier(jwksCache, properties.getClockSkew(), Clock.systemUTC());
+    }
+}
@@ -0,0 +1,82 @@
+package com.opticoretechnologies.identity.client.autoconfigure;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Settings of the identity client, under {@code identity.client}. Only {@code jwks-uri} is
+ * required; it enables the auto-configuration.
+ */
+@ConfigurationProperties(prefix = "identity.client")
+public class IdentityClientProperties {
+    /** The identity service's JWK set, e.g. {@code http://identity:8080/api/auth/.well-known/jwks.json}. */
+    private URI jwksUri;
+    /** The role dictionary; needed only when the service issues compact role claims. */
+    private URI rolesUri;
+    /** How often the cached JWK set is revalidated in the background. */
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    /** Minimum time between fetches triggered by tokens with an unknown key ID. */
+    private Duration minRefetchInterval = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration requestTimeout = Duration.ofSeconds(5);
+    /** Tolerance for clock differences when checking expiry. */
+    private Duration clockSkew = Duration.ofSeconds(30);
+
+    public URI getJwksUri() {
+        return jwksUri;
+    }
+
+    public void setJwksUri(URI jwksUri) {
+        this.jwksUri = jwksUri;
+    }
+
+    public URI getRolesUri() {
+        return rolesUri;
+    }
+
+    public void setRolesUri(URI rolesUri) {
+        this.rolesUri = rolesUri;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public Duration getMinRefetchInterval() {
+        return minRefetchInterval;
+    }
+
+    public void setMinRefetchInterval(Duration minRefetchInterval) {
+        this.minRefetchInterval = minRefetchInterval;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    public Duration getClockSkew() {
+        return clockSkew;
+    }
+
+    public void setClockSkew(Duration clockSkew) {
+        this.clockSkew = clockSkew;
+    }
+}
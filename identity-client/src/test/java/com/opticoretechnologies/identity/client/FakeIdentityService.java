@@ -0,0 +1,127 @@
+package com.opticoretechnologies.identity.client;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Serves a JWK set and a role dictionary the way the identity service does, with entity tags,
+ * and signs tokens with the keys it publishes.
+ */
+class FakeIdentityService implements AutoCloseable {
+    private final HttpServer server;
+    private final List<RSAKey> keys = new ArrayList<>();
+    private volatile List<String> roles = List.of("ROLE_USER", "ROLE_ADMIN");
+    final AtomicInteger jwksRequests = new AtomicInteger();
+    final AtomicInteger rolesRequests = new AtomicInteger();
+
+    FakeIdentityService() throws Exception {
+        rotate();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/jwks.json", exchange -> {
+            jwksRequests.incrementAndGet();
+            serve(exchange, this::jwksETag, () -> JSONObjectUtils.toJSONString(jwkSet().toJSONObject()));
+        });
+        server.createContext("/roles.json", exchange -> {
+            rolesRequests.incrementAndGet();
+            serve(exchange, () -> '"' + RoleBits.version(roles) + '"',
+                    () -> JSONObjectUtils.toJSONString(Map.of("version", RoleBits.version(roles), "roles", roles)));
+        });
+        server.start();
+    }
+
+    URI jwksUri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/jwks.json");
+    }
+
+    URI rolesUri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/roles.json");
+    }
+
+    /**
+     * Adds a new active key, keeping the previous ones published.
+     */
+    synchronized RSAKey rotate() throws Exception {
+        RSAKey key = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+        keys.addFirst(key);
+        return key;
+    }
+
+    synchronized String activeKeyId() {
+        return keys.getFirst().getKeyID();
+    }
+
+    synchronized void retireOldest() {
+        keys.removeLast();
+    }
+
+    void appendRole(String role) {
+        List<String> appended = new ArrayList<>(roles);
+        appended.add(role);
+        roles = List.copyOf(appended);
+    }
+
+    List<String> roles() {
+        return roles;
+    }
+
+    synchronized String sign(JWTClaimsSet claims) throws Exception {
+        return sign(keys.getFirst(), claims);
+    }
+
+    static String sign(RSAKey key, JWTClaimsSet claims) throws Exception {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    private synchronized JWKSet jwkSet() {
+        return new JWKSet(List.<JWK>copyOf(keys));
+    }
+
+    private synchronized String jwksETag() {
+        return "\"" + String.join(",", keys.stream().map(RSAKey::getKeyID).toList()).hashCode() + "\"";
+    }
+
+    private static void serve(HttpExchange exchange, Supplier<String> eTag, Supplier<String> body) throws IOException {
+        String tag = eTag.get();
+        exchange.getResponseHeaders().add("ETag", tag);
+        if (tag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.get().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,95 @@
+package com.opticoretechnologies.identity.client;
+
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentityTokenVerifierTests {
+    private FakeIdentityService identityService;
+    private JwksCache cache;
+    private IdentityTokenVerifier verifier;
+
+    @BeforeEach
+    void start() throws Exception {
+        identityService = new FakeIdentityService();
+        cache = new JwksCache(HttpClient.newHttpClient(), identityService.jwksUri(), identityService.rolesUri(),
+                Duration.ofHours(1), Duration.ofSeconds(30), Duration.ofSeconds(5));
+        cache.refresh();
+        verifier = new IdentityTokenVerifier(cache, Duration.ofSeconds(30), Clock.systemUTC());
+    }
+
+    @AfterEach
+    void stop() {
+        identityService.close();
+    }
+
+    private static JWTClaimsSet.Builder claims(Duration expiresIn) {
+        Instant now = Instant.now();
+        return new JWTClaimsSet.Builder()
+                .subject("alice")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(expiresIn)))
+                .claim(IdentityClaimNames.EMAIL, "alice@example.com");
+    }
+
+    @Test
+    void plainRolesAreReadAsIs() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String token = identityService.sign(claims(Duration.ofMinutes(5))
+                .claim(IdentityClaimNames.ROLES, List.of("ROLE_USER"))
+                .claim(IdentityClaimNames.USER_ID, userId.toString())
+                .claim(IdentityClaimNames.TOKEN_VERSION, 3)
+                .build());
+
+        IdentityTokenVerifier.Verification verification = verifier.verify(token);
+
+        assertThat(verification.isValid()).isTrue();
+        IdentityClaims claims = verification.claims();
+        assertThat(claims.subject()).isEqualTo("alice");
+        assertThat(claims.email()).isEqualTo("alice@example.com");
+        assertThat(claims.userId()).isEqualTo(userId);
+        assertThat(claims.tokenVersion()).isEqualTo(3);
+        assertThat(claims.roles()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void compactRolesAreDecodedWithThePublishedDictionary() throws Exception {
+        String token = identityService.sign(claims(Duration.ofMinutes(5))
+                .claim(IdentityClaimNames.ROLE_VERSION, RoleBits.version(identityService.roles()))
+                .claim(IdentityClaimNames.ROLE_BITS, RoleBits.encode(0b11))
+                .claim(IdentityClaimNames.ROLES, List.of("ROLE_CUSTOM"))
+                .build());
+
+        assertThat(verifier.verify(token).claims().roles()).containsExactly("ROLE_USER", "ROLE_ADMIN", "ROLE_CUSTOM");
+    }
+
+    @Test
+    void rejectionsCarryTheReason() throws Exception {
+        RSAKey foreignKey = new RSAKeyGenerator(2048).keyID(identityService.activeKeyId()).generate();
+
+        assertThat(verifier.verify("not-a-token").outcome())
+                .isEqualTo(IdentityTokenVerifier.Verification.Outcome.MALFORMED);
+        assertThat(verifier.verify(identityService.sign(claims(Duration.ofMinutes(-5)).build())).outcome())
+                .isEqualTo(IdentityTokenVerifier.Verification.Outcome.EXPIRED);
+        assertThat(verifier.verify(FakeIdentityService.sign(foreignKey, claims(Duration.ofMinutes(5)).build())).outcome())
+                .isEqualTo(IdentityTokenVerifier.Verification.Outcome.BAD_SIGNATURE);
+        RSAKey unknownKey = new RSAKeyGenerator(2048).keyID("unknown").generate();
+        assertThat(verifier.verify(FakeIdentityService.sign(unknownKey, claims(Duration.ofMinutes(5)).build())).outcome())
+                .isEqualTo(IdentityTokenVerifier.Verification.Outcome.UNKNOWN_KID);
+        // Within the clock skew an expired token is still accepted.
+        assertThat(verifier.verify(identityService.sign(claims(Duration.ofSeconds(-10)).build())).isValid()).isTrue();
+    }
+}
@@ -0,0 +1,90 @@
+package com.opticoretechnologies.identity.client;
+
+import com.nimbusds.jose.jwk.RSAKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwksCacheTests {
+    private FakeIdentityService identityService;
+
+    @BeforeEach
+    void startIdentityService() throws Exception {
+        identityService = new FakeIdentityService();
+    }
+
+    @AfterEach
+    void stopIdentityService() {
+        identityService.close();
+    }
+
+    private JwksCache cache(Duration minRefetchInterval) {
+        return new JwksCache(HttpClient.newHttpClient(), identityService.jwksUri(), identityService.rolesUri(),
+                Duration.ofHours(1), minRefetchInterval, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void unchangedKeySetIsRevalidatedWithoutReparsing() {
+        JwksCache cache = cache(Duration.ofSeconds(30));
+        assertThat(cache.refresh()).isTrue();
+        var verifier = cache.verifier(identityService.activeKeyId());
+
+        assertThat(cache.refresh()).isTrue();
+        assertThat(cache.refresh()).isTrue();
+
+        // Both revalidations of the key set and of the roles were answered with 304.
+        assertThat(cache.notModifiedCount()).isEqualTo(4);
+        assertThat(cache.verifier(identityService.activeKeyId())).isSameAs(verifier);
+    }
+
+    @Test
+    void rotationIsPickedUpByTheFirstTokenWithTheNewKey() throws Exception {
+        JwksCache cache = cache(Duration.ofSeconds(30));
+        cache.refresh();
+        String oldKeyId = identityService.activeKeyId();
+        var oldVerifier = cache.verifier(oldKeyId);
+
+        RSAKey newKey = identityService.rotate();
+        assertThat(cache.verifier(newKey.getKeyID())).isNotNull();
+        // Verifiers of keys that are still published are carried over, not rebuilt.
+        assertThat(cache.verifier(oldKeyId)).isSameAs(oldVerifier);
+        assertThat(cache.keyCount()).isEqualTo(2);
+
+        identityService.retireOldest();
+        cache.refresh();
+        assertThat(cache.keyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void unknownKeyIdsTriggerAtMostOneFetchPerInterval() {
+        JwksCache cache = cache(Duration.ofSeconds(30));
+        cache.refresh();
+        int requestsAfterRefresh = identityService.jwksRequests.get();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(cache.verifier("made-up-" + i)).isNull();
+        }
+
+        assertThat(identityService.jwksRequests.get() - requestsAfterRefresh).isEqualTo(1);
+        assertThat(cache.rateLimitedCount()).isEqualTo(99);
+    }
+
+    @Test
+    void unknownRoleVersionFetchesTheDictionary() {
+        JwksCache cache = cache(Duration.ZERO);
+        cache.refresh();
+        identityService.appendRole("ROLE_AUDITOR");
+        String newVersion = RoleBits.version(identityService.roles());
+
+        PublishedRoleDictionary dictionary = cache.roleDictionary(newVersion);
+
+        assertThat(dictionary.knows(newVersion)).isTrue();
+        // Older versions are prefixes of the new dictionary and still decode.
+        assertThat(dictionary.knows(RoleBits.version(identityService.roles().subList(0, 2)))).isTrue();
+    }
+}
@@ -0,0 +1,35 @@
+package com.opticoretechnologies.identity.client.autoconfigure;
+
+import com.opticoretechnologies.identity.client.IdentityTokenVerifier;
+import com.opticoretechnologies.identity.client.JwksCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentityClientAutoConfigurationTests {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(IdentityClientAutoConfiguration.class));
+
+    @Test
+    void backsOffWithoutJwksUri() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(IdentityTokenVerifier.class));
+    }
+
+    @Test
+    void providesVerifierWhenJwksUriIsSet() {
+        // Nothing listens on the port; the failed first fetch must not fail startup.
+        contextRunner
+                .withPropertyValues("identity.client.jwks-uri=http://127.0.0.1:9/jwks.json",
+                        "identity.client.request-timeout=1s",
+                        "identity.client.clock-skew=5s")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context).hasSingleBean(JwksCache.class).hasSingleBean(IdentityTokenVerifier.class);
+                    assertThat(context.getBean(IdentityClientProperties.class).getClockSkew()).isEqualTo(Duration.ofSeconds(5));
+                });
+    }
+}
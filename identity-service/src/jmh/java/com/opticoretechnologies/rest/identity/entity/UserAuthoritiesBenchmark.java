@@ -0,0 +1,51 @@
+package com.opticoretechnologies.rest.identity.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link User#getAuthorities()}, called for every authenticated request and every issued token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserAuthoritiesBenchmark {
+    @Param({"1", "5", "20"})
+    public int roleCount;
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        Set<Role> roles = new HashSet<>();
+        for (int i = 0; i < roleCount; i++) {
+            roles.add(Role.builder().id(UUID.randomUUID()).name("ROLE_" + i).build());
+        }
+        user = User.builder().username("bench-user").password("unused").email("bench-user@example.com")
+                .roles(roles).build();
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return user.getAuthorities();
+    }
+}
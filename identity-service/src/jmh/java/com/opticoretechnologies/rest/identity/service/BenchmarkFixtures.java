@@ -0,0 +1,52 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.entity.Role;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds the services the way Spring would, without starting a context. Metrics are recorded
+ * into a {@link SimpleMeterRegistry}, so their overhead is part of every measurement.
+ */
+final class BenchmarkFixtures {
+    static final long ACCESS_TOKEN_EXPIRATION_SEC = 900;
+
+    private BenchmarkFixtures() {
+    }
+
+    static AuthMetrics metrics() {
+        return new AuthMetrics(new SimpleMeterRegistry());
+    }
+
+    static JwkService jwkService(AuthMetrics metrics, int keysToKeep) {
+        return new JwkService(true, keysToKeep, metrics);
+    }
+
+    static JwtService jwtService(JwkService jwkService, AuthMetrics metrics) {
+        JwtService jwtService = new JwtService(jwkService, metrics,
+                new RoleDictionary(List.of("ROLE_USER", "ROLE_ADMIN")), new TokenVersionRegistry());
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", ACCESS_TOKEN_EXPIRATION_SEC);
+        return jwtService;
+    }
+
+    static User user(int roleCount) {
+        Set<Role> roles = new HashSet<>();
+        for (int i = 0; i < roleCount; i++) {
+            roles.add(Role.builder().id(UUID.randomUUID()).name("ROLE_" + i).build());
+        }
+        return User.builder()
+                .id(UUID.randomUUID())
+                .username("bench-user")
+                .password("unused")
+                .email("bench-user@example.com")
+                .roles(roles)
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.nimbusds.jose.JWSVerifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwkService#findVerifierByKeyId} alone, with many readers, and with readers racing a
+ * thread that keeps rotating keys. The rotating thread spends most of its time generating RSA
+ * keys, which is exactly when readers must not be blocked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwkLookupBenchmark {
+    private JwkService jwkService;
+    private String keyId;
+
+    @Setup
+    public void setUp() {
+        // Keep enough keys that the lookup key survives the rotations of a whole run.
+        jwkService = BenchmarkFixtures.jwkService(BenchmarkFixtures.metrics(), 10_000);
+        keyId = jwkService.getActiveSigningKey().getKeyID();
+    }
+
+    @Benchmark
+    public Optional<JWSVerifier> lookup() {
+        return jwkService.findVerifierByKeyId(keyId);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Optional<JWSVerifier> lookupContended() {
+        return jwkService.findVerifierByKeyId(keyId);
+    }
+
+    @Benchmark
+    @Group("rotation")
+    @GroupThreads(7)
+    public Optional<JWSVerifier> lookupDuringRotation() {
+        return jwkService.findVerifierByKeyId(keyId);
+    }
+
+    @Benchmark
+    @Group("rotation")
+    @GroupThreads(1)
+    public void rotate() {
+        jwkService.rotateKeys();
+    }
+}
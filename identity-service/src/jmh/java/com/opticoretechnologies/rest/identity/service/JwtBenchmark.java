@@ -0,0 +1,62 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token issuance and full validation (parse, kid lookup, RS256 verify, expiry, subject).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        AuthMetrics metrics = BenchmarkFixtures.metrics();
+        jwtService = BenchmarkFixtures.jwtService(BenchmarkFixtures.jwkService(metrics, 2), metrics);
+        user = BenchmarkFixtures.user(3);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateTokenContended() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean validateTokenContended() {
+        return jwtService.isTokenValid(token, user);
+    }
+}
@@ -0,0 +1,78 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.config.ReadYourWritesTracker;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the filter pays per request before loading the user: resolving a reference token that
+ * is in the node-local cache (hash, map lookup, token version check) against verifying a JWT
+ * (parse, kid lookup, RS256 verify, expiry, token version check). A cache miss adds one indexed
+ * read of {@code _access_handles}, which is database time and not measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReferenceTokenBenchmark {
+    private ReferenceTokenService referenceTokenService;
+    private JwtService jwtService;
+    private String handle;
+    private String jwt;
+
+    @Setup
+    public void setUp() {
+        AuthMetrics metrics = BenchmarkFixtures.metrics();
+        TokenHashingService hashing = new TokenHashingService(metrics);
+        ReferenceTokenCache cache = new ReferenceTokenCache(10_000, TimeUnit.HOURS.toMillis(1), new SimpleMeterRegistry());
+        referenceTokenService = new ReferenceTokenService(null, cache, hashing, new TokenVersionRegistry(),
+                new ReadYourWritesTracker(false, 0), null, metrics);
+        jwtService = BenchmarkFixtures.jwtService(BenchmarkFixtures.jwkService(metrics, 2), metrics);
+
+        User user = BenchmarkFixtures.user(3);
+        handle = ReferenceTokenService.PREFIX + "x".repeat(43);
+        long now = System.currentTimeMillis();
+        cache.put(hashing.hashToken(handle), new ReferenceTokenService.Handle(user.getId(), user.getUsername(),
+                user.getTokenVersion(), now, now + TimeUnit.HOURS.toMillis(1)));
+        jwt = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Optional<ReferenceTokenService.Handle> resolveCachedReferenceToken() {
+        return referenceTokenService.resolve(handle);
+    }
+
+    @Benchmark
+    public TokenVerification verifyJwt() {
+        return jwtService.verifyToken(jwt);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<ReferenceTokenService.Handle> resolveCachedReferenceTokenContended() {
+        return referenceTokenService.resolve(handle);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public TokenVerification verifyJwtContended() {
+        return jwtService.verifyToken(jwt);
+    }
+}
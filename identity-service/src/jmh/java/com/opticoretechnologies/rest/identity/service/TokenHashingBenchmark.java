@@ -0,0 +1,57 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh token generation and the SHA-256 hashing done on every refresh token lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenHashingBenchmark {
+    private TokenHashingService tokenHashingService;
+    private String rawToken;
+
+    @Setup
+    public void setUp() {
+        tokenHashingService = new TokenHashingService(BenchmarkFixtures.metrics());
+        rawToken = RefreshTokenService.generateRawToken();
+    }
+
+    @Benchmark
+    public String hashToken() {
+        return tokenHashingService.hashToken(rawToken);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String hashTokenContended() {
+        return tokenHashingService.hashToken(rawToken);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return RefreshTokenService.generateRawToken();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateRefreshTokenContended() {
+        return RefreshTokenService.generateRawToken();
+    }
+}
@@ -0,0 +1,122 @@
+package com.opticoretechnologies.rest.identity.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Blocking HTTP client for the auth endpoints. The refresh cookie is handled by hand because
+ * it is marked {@code Secure} and the harness talks plain HTTP.
+ */
+final class IdentityClient {
+    private static final String REFRESH_COOKIE = "refresh-token";
+    private static final String PASSWORD = "load-password-123";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    IdentityClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Mutable per-user state. A session is only ever used by one request at a time.
+     */
+    static final class Session {
+        final String username;
+        String accessToken;
+        String refreshToken;
+
+        Session(String username) {
+            this.username = username;
+        }
+    }
+
+    void register(Session session) throws IOException, InterruptedException {
+        String body = "{\"username\":\"" + session.username + "\",\"email\":\"" + session.username
+                + "@example.com\",\"password\":\"" + PASSWORD + "\"}";
+        expectOk(send(json("/api/auth/register", body)), "register");
+    }
+
+    /**
+     * Runs one operation and returns the HTTP status.
+     */
+    int execute(Operation operation, Session session) throws IOException, InterruptedException {
+        return switch (operation) {
+            case LOGIN -> login(session);
+            case REFRESH -> session.refreshToken == null ? login(session) : refresh(session);
+            case ME -> session.accessToken == null ? login(session) : me(session);
+            case JWKS -> send(HttpRequest.newBuilder(uri("/api/auth/.well-known/jwks.json")).GET().build()).statusCode();
+        };
+    }
+
+    int login(Session session) throws IOException, InterruptedException {
+        String body = "{\"username\":\"" + session.username + "\",\"password\":\"" + PASSWORD + "\"}";
+        return acceptTokens(session, send(json("/api/auth/login", body)));
+    }
+
+    private int refresh(Session session) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/auth/refresh"))
+                .header("Cookie", REFRESH_COOKIE + "=" + session.refreshToken)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return acceptTokens(session, send(request));
+    }
+
+    private int me(Session session) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/user/me"))
+                .header("Authorization", "Bearer " + session.accessToken)
+                .GET()
+                .build();
+        return send(request).statusCode();
+    }
+
+    private int acceptTokens(Session session, HttpResponse<String> response) throws IOException {
+        if (response.statusCode() == 200) {
+            JsonNode body = objectMapper.readTree(response.body());
+            session.accessToken = body.path("accessToken").asText(null);
+            response.headers().allValues("Set-Cookie").stream()
+                    .filter(cookie -> cookie.startsWith(REFRESH_COOKIE + "="))
+                    .map(cookie -> cookie.substring(REFRESH_COOKIE.length() + 1, cookie.indexOf(';')))
+                    .findFirst()
+                    .ifPresent(token -> session.refreshToken = token);
+        } else if (response.statusCode() == 401 || response.statusCode() == 403) {
+            // Start over with a password login next time.
+            session.refreshToken = null;
+            session.accessToken = null;
+        }
+        return response.statusCode();
+    }
+
+    private HttpRequest json(String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static void expectOk(HttpResponse<String> response, String what) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(what + " failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+}
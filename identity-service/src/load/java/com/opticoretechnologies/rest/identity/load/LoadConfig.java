@@ -0,0 +1,55 @@
+package com.opticoretechnologies.rest.identity.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Harness settings, parsed from {@code --key=value} arguments.
+ *
+ * @param users       registered accounts; each backs one session
+ * @param concurrency closed model: number of workers looping back to back;
+ *                    open model: maximum requests in flight before arrivals are dropped
+ * @param rate        arrivals per second; 0 selects the closed model
+ * @param warmup      run time discarded before measuring
+ * @param duration    measured run time
+ * @param mix         relative weight of each operation
+ * @param output      where the JSON report is written
+ */
+record LoadConfig(int users, int concurrency, double rate, Duration warmup, Duration duration,
+                  Map<Operation, Integer> mix, Path output) {
+
+    static LoadConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadConfig(
+                Integer.parseInt(values.getOrDefault("users", "200")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                Double.parseDouble(values.getOrDefault("rate", "0")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "30"))),
+                parseMix(values.getOrDefault("mix", "login:5,refresh:20,me:60,jwks:15")),
+                Path.of(values.getOrDefault("output", "target/load-result.json")));
+    }
+
+    boolean openModel() {
+        return rate > 0;
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] weight = part.split(":");
+            mix.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+}
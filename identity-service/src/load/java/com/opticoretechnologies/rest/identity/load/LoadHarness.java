@@ -0,0 +1,186 @@
+package com.opticoretechnologies.rest.identity.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opticoretechnologies.rest.identity.SpringRestIdentityServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load harness. Boots the service in-process on an embedded H2 database in
+ * PostgreSQL mode, registers {@code --users} accounts and drives a weighted mix of login,
+ * refresh rotation, {@code /api/user/me} and JWKS requests over loopback HTTP.
+ * <p>
+ * Two workload models:
+ * <ul>
+ *     <li>closed ({@code --rate=0}, the default): {@code --concurrency} workers send requests
+ *     back to back, so throughput is whatever the service sustains;</li>
+ *     <li>open ({@code --rate=N}): requests arrive at N per second regardless of how fast the
+ *     service answers. Latency is measured from the scheduled arrival time, so queueing delay
+ *     is included rather than hidden (no coordinated omission). Arrivals that find
+ *     {@code --concurrency} requests in flight are dropped and counted.</li>
+ * </ul>
+ * Results (throughput, p50/p90/p99/p99.9/max per operation) go to {@code --output} as JSON.
+ * <pre>
+ * mvn -pl identity-service -Pload test-compile exec:exec -Dload.args="--rate=200 --duration=60"
+ * </pre>
+ */
+public final class LoadHarness {
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringRestIdentityServiceApplication.class)
+                .profiles("load")
+                .run()) {
+            String port = context.getEnvironment().getRequiredProperty("local.server.port");
+            IdentityClient client = new IdentityClient("http://localhost:" + port);
+
+            BlockingQueue<IdentityClient.Session> sessions = registerAndLogIn(client, config.users());
+            LoadReport report = new LoadReport();
+            Operation[] schedule = schedule(config.mix());
+
+            long warmupEnd = System.nanoTime() + config.warmup().toNanos();
+            long end = warmupEnd + config.duration().toNanos();
+            System.out.printf("Running %s model for %ds after %ds warm-up...%n",
+                    config.openModel() ? "open" : "closed", config.duration().toSeconds(), config.warmup().toSeconds());
+            Thread resetter = Thread.ofPlatform().daemon().start(() -> {
+                LockSupport.parkNanos(warmupEnd - System.nanoTime());
+                report.reset();
+            });
+
+            if (config.openModel()) {
+                runOpen(config, client, sessions, schedule, report, end);
+            } else {
+                runClosed(config, client, sessions, schedule, report, end);
+            }
+            resetter.join();
+
+            Map<String, Object> result = report.write(config);
+            System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(result));
+            System.out.println("Report written to " + config.output().toAbsolutePath());
+        }
+    }
+
+    private static BlockingQueue<IdentityClient.Session> registerAndLogIn(IdentityClient client, int users) throws Exception {
+        BlockingQueue<IdentityClient.Session> sessions = new ArrayBlockingQueue<>(users);
+        String prefix = "load-" + Long.toString(System.currentTimeMillis(), 36) + "-";
+        try (ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())) {
+            List<Future<IdentityClient.Session>> registered = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                IdentityClient.Session session = new IdentityClient.Session(prefix + i);
+                registered.add(executor.submit(() -> {
+                    client.register(session);
+                    // Start with tokens, so the first refresh or /me of a session is not a hidden login.
+                    client.login(session);
+                    return session;
+                }));
+            }
+            for (Future<IdentityClient.Session> session : registered) {
+                sessions.add(session.get());
+            }
+        }
+        System.out.printf("Registered and logged in %d users%n", users);
+        return sessions;
+    }
+
+    /**
+     * Expands the weights into a lookup table, so picking an operation is one random index.
+     */
+    private static Operation[] schedule(Map<Operation, Integer> mix) {
+        List<Operation> table = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        });
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix must have at least one positive weight");
+        }
+        return table.toArray(Operation[]::new);
+    }
+
+    private static void runClosed(LoadConfig config, IdentityClient client, BlockingQueue<IdentityClient.Session> sessions,
+                                  Operation[] schedule, LoadReport report, long end) throws Exception {
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.concurrency(); i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        execute(client, sessions, pick(schedule), report, System.nanoTime());
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private static void runOpen(LoadConfig config, IdentityClient client, BlockingQueue<IdentityClient.Session> sessions,
+                                Operation[] schedule, LoadReport report, long end) {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.rate());
+        AtomicInteger inFlight = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (inFlight.incrementAndGet() > config.concurrency()) {
+                    inFlight.decrementAndGet();
+                    report.recordDropped();
+                    continue;
+                }
+                Operation operation = pick(schedule);
+                requests.submit(() -> {
+                    try {
+                        execute(client, sessions, operation, report, intended);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private static void execute(IdentityClient client, BlockingQueue<IdentityClient.Session> sessions,
+                                Operation operation, LoadReport report, long startNanos) throws InterruptedException {
+        IdentityClient.Session session = sessions.take();
+        try {
+            int status = client.execute(operation, session);
+            if (status >= 200 && status < 300) {
+                report.recordSuccess(operation, System.nanoTime() - startNanos);
+            } else {
+                report.recordError(operation, status);
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            report.recordError(operation, 0);
+        } finally {
+            sessions.add(session);
+        }
+    }
+
+    private static Operation pick(Operation[] schedule) {
+        return schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+    }
+}
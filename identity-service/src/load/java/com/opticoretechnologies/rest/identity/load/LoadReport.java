@@ -0,0 +1,127 @@
+package com.opticoretechnologies.rest.identity.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and error counts per operation. Recording is thread-safe and lock-free;
+ * {@link #reset()} discards everything recorded so far, which is how warm-up is cut off.
+ */
+final class LoadReport {
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Integer, LongAdder>> errors = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+    private volatile long measureStartNanos = System.nanoTime();
+
+    LoadReport() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(3));
+            errors.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    void recordSuccess(Operation operation, long latencyNanos) {
+        latencies.get(operation).recordValue(latencyNanos);
+    }
+
+    /**
+     * Records a failed request by HTTP status, or status 0 when no response arrived.
+     */
+    void recordError(Operation operation, int status) {
+        errors.get(operation).computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    /** Open model only: an arrival found {@code concurrency} requests already in flight. */
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void reset() {
+        latencies.values().forEach(Recorder::reset);
+        errors.values().forEach(Map::clear);
+        dropped.reset();
+        measureStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Snapshots the measurement so far and writes it as JSON to {@code config.output()}.
+     */
+    Map<String, Object> write(LoadConfig config) throws IOException {
+        double elapsedSec = (System.nanoTime() - measureStartNanos) / 1e9;
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation).getIntervalHistogram();
+            Map<Integer, Long> errorsByStatus = new TreeMap<>();
+            errors.get(operation).forEach((status, count) -> errorsByStatus.put(status, count.sum()));
+            long errorCount = errorsByStatus.values().stream().mapToLong(Long::longValue).sum();
+            if (histogram.getTotalCount() == 0 && errorCount == 0) {
+                continue;
+            }
+            total.add(histogram);
+            totalErrors += errorCount;
+            Map<String, Object> summary = summarize(histogram, errorCount, elapsedSec);
+            summary.put("errorsByStatus", errorsByStatus);
+            operations.put(operation.name().toLowerCase(), summary);
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("model", config.openModel() ? "open" : "closed");
+        settings.put("users", config.users());
+        settings.put("concurrency", config.concurrency());
+        settings.put("rate", config.rate());
+        settings.put("warmupSec", config.warmup().toSeconds());
+        settings.put("durationSec", config.duration().toSeconds());
+        settings.put("mix", config.mix());
+        settings.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        settings.put("javaVersion", Runtime.version().toString());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", settings);
+        report.put("elapsedSec", round(elapsedSec));
+        report.put("dropped", dropped.sum());
+        report.put("total", summarize(total, totalErrors, elapsedSec));
+        report.put("operations", operations);
+
+        if (config.output().getParent() != null) {
+            Files.createDirectories(config.output().getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(config.output().toFile(), report);
+        return report;
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram, long errorCount, double elapsedSec) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("errors", errorCount);
+        summary.put("throughputPerSec", round(histogram.getTotalCount() / elapsedSec));
+        summary.put("meanMs", round(histogram.getMean() / 1e6));
+        summary.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+        summary.put("p90Ms", millis(histogram.getValueAtPercentile(90)));
+        summary.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+        summary.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+        summary.put("maxMs", millis(histogram.getMaxValue()));
+        return summary;
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.opticoretechnologies.rest.identity.load;
+
+/**
+ * The requests the harness mixes. Every operation acts on behalf of one virtual user's session.
+ */
+enum Operation {
+    /** Fresh password login (BCrypt match, refresh token insert). */
+    LOGIN,
+    /** Refresh token rotation through the refresh cookie. */
+    REFRESH,
+    /** Bearer-authenticated {@code GET /api/user/me}. */
+    ME,
+    /** Public key polling, as every resource server does. */
+    JWKS
+}
@@ -0,0 +1,14 @@
+package com.opticoretechnologies.rest.identity.audit;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One authentication event on its way to the audit table.
+ *
+ * @param userId     the user's ID, or {@code null} when it is not known (e.g. failed logins)
+ * @param username   the username as presented or resolved, may be {@code null}
+ * @param deviceInfo User-Agent and client address, may be {@code null}
+ */
+public record AuthAuditEvent(AuthAuditEventType type, UUID userId, String username, String deviceInfo, Instant occurredAt) {
+}
@@ -0,0 +1,15 @@
+package com.opticoretechnologies.rest.identity.audit;
+
+/**
+ * What happened in an audited authentication event. Stored by name, so only append.
+ */
+public enum AuthAuditEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    REFRESH_SUCCESS,
+    REFRESH_FAILURE,
+    LOGOUT,
+    PASSWORD_CHANGE,
+    USERNAME_CHANGE,
+    SESSION_REVOKED
+}
@@ -0,0 +1,264 @@
+package com.opticoretechnologies.rest.identity.audit;
+
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous, batched authentication audit log.
+ * <p>
+ * Request threads hand events to a bounded lock-free {@link MpscRingBuffer} and return; they
+ * never block, take a lock or touch the database. A single background writer drains the buffer
+ * and inserts with JDBC batching whenever a full batch is ready or the oldest pending event is
+ * {@code flush-interval-ms} old, whichever comes first. When the buffer is full, events are
+ * dropped and counted rather than slowing down logins. Once a full batch is waiting, producers
+ * wake the writer instead of letting it sleep out the interval, and offers made above the
+ * high-water mark (three quarters full) are counted as backpressure. On shutdown the writer
+ * drains what is left.
+ * <p>
+ * Meters: {@code identity.audit.events{result=accepted|dropped}},
+ * {@code identity.audit.backpressure}, {@code identity.audit.written},
+ * {@code identity.audit.write.failed}, {@code identity.audit.batch.write} and the
+ * {@code identity.audit.buffer.size} gauge.
+ */
+@Component
+@Slf4j
+public class AuthAuditLog implements SmartLifecycle {
+    static final String INSERT_SQL = "INSERT INTO _auth_audit_log (id, event_type, user_id, username, device_info, occurred_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int MAX_USERNAME_LENGTH = 255;
+    private static final int MAX_DEVICE_INFO_LENGTH = 512;
+    private static final long RETRY_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long UNPUBLISHED_SLOT_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int highWaterMark;
+    private final MpscRingBuffer<AuthAuditEvent> buffer;
+    private final Consumer<List<AuthAuditEvent>> batchWriter;
+
+    private final Counter accepted;
+    private final Counter dropped;
+    private final Counter backpressure;
+    private final Counter written;
+    private final Counter writeFailed;
+    private final Timer batchWrite;
+
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    @Autowired
+    public AuthAuditLog(DataSource dataSource, MeterRegistry meterRegistry,
+                        @Value("${app.audit.enabled:true}") boolean enabled,
+                        @Value("${app.audit.buffer-capacity:8192}") int bufferCapacity,
+                        @Value("${app.audit.batch-size:500}") int batchSize,
+                        @Value("${app.audit.flush-interval-ms:200}") long flushIntervalMs) {
+        this(jdbcBatchWriter(new JdbcTemplate(dataSource), batchSize), meterRegistry, enabled, bufferCapacity, batchSize, flushIntervalMs);
+    }
+
+    AuthAuditLog(Consumer<List<AuthAuditEvent>> batchWriter, MeterRegistry meterRegistry,
+                 boolean enabled, int bufferCapacity, int batchSize, long flushIntervalMs) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.highWaterMark = buffer.capacity() - buffer.capacity() / 4;
+        this.batchWriter = batchWriter;
+
+        this.accepted = eventCounter(meterRegistry, "accepted");
+        this.dropped = eventCounter(meterRegistry, "dropped");
+        this.backpressure = Counter.builder("identity.audit.backpressure")
+                .description("Audit events offered while the buffer was above its high-water mark")
+                .register(meterRegistry);
+        this.written = Counter.builder("identity.audit.written")
+                .description("Audit events inserted into the audit table")
+                .register(meterRegistry);
+        this.writeFailed = Counter.builder("identity.audit.write.failed")
+                .description("Audit events lost because their batch could not be inserted")
+                .register(meterRegistry);
+        this.batchWrite = Timer.builder("identity.audit.batch.write")
+                .description("Audit batch inserts")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+        Gauge.builder("identity.audit.buffer.size", buffer, MpscRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void record(AuthAuditEventType type, User user, String deviceInfo) {
+        record(type, user.getId(), user.getUsername(), deviceInfo);
+    }
+
+    /**
+     * Queues an event for writing. Never blocks; if the buffer is full the event is dropped.
+     */
+    public void record(AuthAuditEventType type, UUID userId, String username, String deviceInfo) {
+        if (!enabled) {
+            return;
+        }
+        if (!buffer.offer(new AuthAuditEvent(type, userId, username, deviceInfo, Instant.now()))) {
+            dropped.increment();
+            return;
+        }
+        accepted.increment();
+        int size = buffer.size();
+        if (size >= highWaterMark) {
+            backpressure.increment();
+        }
+        if (size >= batchSize) {
+            Thread current = writer;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        }
+    }
+
+    private void runWriter() {
+        List<AuthAuditEvent> batch = new ArrayList<>(batchSize);
+        long oldestPendingAt = 0;
+        while (running || buffer.size() > 0) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                if (running) {
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                } else {
+                    // Stopping with events left that cannot be drained yet: a producer has claimed
+                    // a slot but not published it. Wait for it without spinning.
+                    LockSupport.parkNanos(this, UNPUBLISHED_SLOT_WAIT_NANOS);
+                }
+                continue;
+            }
+            long now = System.nanoTime();
+            if (oldestPendingAt == 0) {
+                oldestPendingAt = now;
+            }
+            long waited = now - oldestPendingAt;
+            if (batch.size() >= batchSize || waited >= flushIntervalNanos || !running) {
+                write(batch);
+                batch.clear();
+                oldestPendingAt = 0;
+            } else {
+                LockSupport.parkNanos(this, flushIntervalNanos - waited);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<AuthAuditEvent> batch) {
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                batchWriter.accept(batch);
+                AuthMetrics.record(batchWrite, start);
+                written.increment(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= 2 || !running) {
+                    writeFailed.increment(batch.size());
+                    log.atError()
+                            .addKeyValue("events", batch.size())
+                            .setCause(e)
+                            .log("Dropping {} audit events after failed insert", batch.size());
+                    return;
+                }
+                log.warn("Audit batch insert failed, retrying once: {}", e.getMessage());
+                LockSupport.parkNanos(this, RETRY_DELAY_NANOS);
+            }
+        }
+    }
+
+    private static Consumer<List<AuthAuditEvent>> jdbcBatchWriter(JdbcTemplate jdbcTemplate, int batchSize) {
+        return batch -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batchSize, AuthAuditLog::bind);
+    }
+
+    private static void bind(PreparedStatement ps, AuthAuditEvent event) throws SQLException {
+        ps.setObject(1, UUID.randomUUID());
+        ps.setString(2, event.type().name());
+        ps.setObject(3, event.userId());
+        ps.setString(4, truncate(event.username(), MAX_USERNAME_LENGTH));
+        ps.setString(5, truncate(event.deviceInfo(), MAX_DEVICE_INFO_LENGTH));
+        ps.setObject(6, OffsetDateTime.ofInstant(event.occurredAt(), ZoneOffset.UTC));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("identity.audit.events")
+                .description("Audit events offered to the buffer, by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("auth-audit-writer").daemon().start(this::runWriter);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = writer;
+        if (current == null) {
+            return;
+        }
+        LockSupport.unpark(current);
+        try {
+            current.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            log.warn("Audit writer did not finish within {} ms, {} events may be lost", SHUTDOWN_TIMEOUT_MS, buffer.size());
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so requests still in flight during a
+     * graceful shutdown get their events written.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,113 @@
+package com.opticoretechnologies.rest.identity.audit;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free ring buffer for many producers and a single consumer.
+ * <p>
+ * Every slot carries a sequence number telling whose turn it is: a producer claims a position
+ * with one CAS on the tail, writes the element and publishes it by advancing the slot's
+ * sequence; the consumer takes it and hands the slot back by advancing the sequence one lap.
+ * {@link #offer(Object)} never blocks and never allocates, it fails when the buffer is full.
+ * Only one thread may call {@link #poll()} or {@link #drainTo(Collection, int)}.
+ */
+final class MpscRingBuffer<E> {
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2, was " + requestedCapacity);
+        }
+        this.capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.setPlain(i, i);
+        }
+    }
+
+    /**
+     * Adds the element if there is room. Safe to call from any number of threads.
+     *
+     * @return {@code false} if the buffer is full
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.weakCompareAndSetVolatile(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still holds an element from the previous lap.
+                return false;
+            } else {
+                // Another producer claimed this position first.
+                position = tail.get();
+            }
+        }
+        elements.setPlain(index, element);
+        sequences.setRelease(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Takes the oldest element, or returns {@code null} if none has been published yet.
+     * Consumer thread only.
+     */
+    E poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.getAcquire(index) != position + 1) {
+            return null;
+        }
+        E element = elements.getPlain(index);
+        elements.setPlain(index, null);
+        sequences.setRelease(index, position + capacity);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * Moves up to {@code max} elements into {@code target}. Consumer thread only.
+     *
+     * @return the number of elements moved
+     */
+    int drainTo(Collection<? super E> target, int max) {
+        int drained = 0;
+        while (drained < max) {
+            E element = poll();
+            if (element == null) {
+                break;
+            }
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Approximate number of elements, exact only when producers and consumer are quiet.
+     */
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,149 @@
+package com.opticoretechnologies.rest.identity.breach;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A Bloom filter stored in a file and memory-mapped read-only, so its bits live in the page
+ * cache rather than on the heap and every process mapping the same file shares them.
+ * <p>
+ * The file is a 32-byte header followed by the bit array:
+ * <pre>
+ * int  magic      'IDBF'
+ * int  version    1
+ * int  hashCount  bits set per entry
+ * int  reserved
+ * long bitCount
+ * long entries    entries added by the builder, for information
+ * byte[ceil(bitCount / 8)] bits, bit i is bit (i % 8) of byte i / 8
+ * </pre>
+ * Entries are SHA-1 digests. As they are uniformly distributed already, the bit positions are
+ * derived from the digest itself by double hashing ({@code h1 + i * h2}), so a lookup hashes
+ * nothing and reads {@code hashCount} bytes. Files beyond 2 GiB are mapped in 1 GiB chunks.
+ */
+public final class BloomFilterFile {
+    static final int MAGIC = 0x49444246;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int DIGEST_BYTES = 20;
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private final MappedByteBuffer[] chunks;
+    private final int hashCount;
+    private final long bitCount;
+    private final long entries;
+
+    private BloomFilterFile(MappedByteBuffer[] chunks, int hashCount, long bitCount, long entries) {
+        this.chunks = chunks;
+        this.hashCount = hashCount;
+        this.bitCount = bitCount;
+        this.entries = entries;
+    }
+
+    /**
+     * Maps the filter at {@code path} read-only. The channel is closed right away; the mapping
+     * stays valid until the returned object is garbage collected.
+     *
+     * @throws IOException if the file cannot be read or is not a filter of this format
+     */
+    public static BloomFilterFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException(path + " is not a Bloom filter file");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException(path + " has unsupported Bloom filter version " + version);
+            }
+            int hashCount = header.getInt();
+            header.getInt();
+            long bitCount = header.getLong();
+            long entries = header.getLong();
+            long bytes = byteCount(bitCount);
+            if (hashCount < 1 || bitCount < 1 || channel.size() < HEADER_BYTES + bytes) {
+                throw new IOException(path + " is truncated or has an invalid header");
+            }
+            return new BloomFilterFile(map(channel, FileChannel.MapMode.READ_ONLY, bytes), hashCount, bitCount, entries);
+        }
+    }
+
+    /**
+     * Whether the SHA-1 {@code digest} may have been added. False positives happen at the rate
+     * the filter was built for; false negatives do not.
+     */
+    public boolean mightContain(byte[] digest) {
+        long h1 = h1(digest);
+        long h2 = h2(digest);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            byte value = chunks[(int) ((bit >>> 3) >>> CHUNK_SHIFT)].get((int) ((bit >>> 3) & CHUNK_MASK));
+            if ((value & (1 << (bit & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    public long entries() {
+        return entries;
+    }
+
+    static long byteCount(long bitCount) {
+        return (bitCount + 7) >>> 3;
+    }
+
+    static long h1(byte[] digest) {
+        return readLong(digest, 0);
+    }
+
+    static long h2(byte[] digest) {
+        // Odd, so that successive positions never repeat before wrapping around.
+        return readLong(digest, Long.BYTES) | 1;
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+
+    /**
+     * Maps the bit array that follows the header, in chunks of 1 GiB.
+     */
+    static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long bytes) throws IOException {
+        int count = (int) ((bytes + CHUNK_MASK) >>> CHUNK_SHIFT);
+        MappedByteBuffer[] chunks = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long offset = (long) i << CHUNK_SHIFT;
+            chunks[i] = channel.map(mode, HEADER_BYTES + offset, Math.min(1L << CHUNK_SHIFT, bytes - offset));
+        }
+        return chunks;
+    }
+
+    static void setBit(MappedByteBuffer[] chunks, long bit) {
+        MappedByteBuffer chunk = chunks[(int) ((bit >>> 3) >>> CHUNK_SHIFT)];
+        int index = (int) ((bit >>> 3) & CHUNK_MASK);
+        chunk.put(index, (byte) (chunk.get(index) | (1 << (bit & 7))));
+    }
+}
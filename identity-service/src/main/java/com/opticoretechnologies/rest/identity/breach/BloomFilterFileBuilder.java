@@ -0,0 +1,140 @@
+package com.opticoretechnologies.rest.identity.breach;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Offline builder for {@link BloomFilterFile}s of breached passwords. Reads one entry per line:
+ * either a SHA-1 hex digest, optionally followed by {@code :count} as in the Have I Been Pwned
+ * download, or with {@code --plain=true} the password itself. The bit array is written through
+ * a memory mapping, so building a filter of hundreds of millions of entries needs no heap to
+ * speak of. The result is written next to {@code --output} and moved over it atomically, so a
+ * running service reloading the file never sees it half written.
+ * <pre>
+ * java -cp rest-identity-service.jar -Dloader.main=com.opticoretechnologies.rest.identity.breach.BloomFilterFileBuilder \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     --input=pwned-passwords-sha1.txt --output=/var/lib/identity/breached-passwords.bloom [--fpp=0.001] [--expected=N]
+ * </pre>
+ * Without {@code --expected} the input is read twice, once to count the entries.
+ */
+public final class BloomFilterFileBuilder {
+    private static final double LN2 = Math.log(2);
+
+    private BloomFilterFileBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parse(args);
+        Path input = Path.of(required(options, "input"));
+        Path output = Path.of(required(options, "output"));
+        double fpp = Double.parseDouble(options.getOrDefault("fpp", "0.001"));
+        boolean plain = Boolean.parseBoolean(options.getOrDefault("plain", "false"));
+        long expected = options.containsKey("expected") ? Long.parseLong(options.get("expected")) : countLines(input);
+
+        long start = System.nanoTime();
+        long added = build(input, output, expected, fpp, plain);
+        System.out.printf("Added %d entries to %s in %d ms%n", added, output, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Builds a filter sized for {@code expected} entries at false positive rate {@code fpp}.
+     *
+     * @return the number of entries added
+     */
+    public static long build(Path input, Path output, long expected, double fpp, boolean plain) throws IOException {
+        if (expected < 1 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("Need at least one expected entry and 0 < fpp < 1");
+        }
+        long bitCount = Math.max(64, (long) Math.ceil(-expected * Math.log(fpp) / (LN2 * LN2)));
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * LN2));
+        long bytes = BloomFilterFile.byteCount(bitCount);
+
+        Path temporary = output.resolveSibling(output.getFileName() + ".tmp");
+        long added = 0;
+        try (RandomAccessFile file = new RandomAccessFile(temporary.toFile(), "rw");
+             FileChannel channel = file.getChannel();
+             BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            file.setLength(0);
+            file.setLength(BloomFilterFile.HEADER_BYTES + bytes);
+            MappedByteBuffer[] chunks = BloomFilterFile.map(channel, FileChannel.MapMode.READ_WRITE, bytes);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                byte[] digest = plain ? BreachedPasswordFilter.sha1(line) : parseDigest(line);
+                if (digest == null) {
+                    continue;
+                }
+                long h1 = BloomFilterFile.h1(digest);
+                long h2 = BloomFilterFile.h2(digest);
+                for (int i = 0; i < hashCount; i++) {
+                    BloomFilterFile.setBit(chunks, Math.floorMod(h1 + i * h2, bitCount));
+                }
+                added++;
+            }
+            for (MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+            ByteBuffer header = ByteBuffer.allocate(BloomFilterFile.HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+            header.putInt(BloomFilterFile.MAGIC).putInt(BloomFilterFile.VERSION).putInt(hashCount).putInt(0)
+                    .putLong(bitCount).putLong(added).flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temporary, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return added;
+    }
+
+    /**
+     * The digest of a {@code HEX[:count]} line, or null for blank and malformed lines.
+     */
+    private static byte[] parseDigest(String line) {
+        int end = line.indexOf(':');
+        String hex = (end < 0 ? line : line.substring(0, end)).trim();
+        if (hex.length() != BloomFilterFile.DIGEST_BYTES * 2) {
+            return null;
+        }
+        try {
+            return HexFormat.of().parseHex(hex);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long countLines(Path input) throws IOException {
+        try (Stream<String> lines = Files.lines(input, StandardCharsets.UTF_8)) {
+            return lines.count();
+        }
+    }
+
+    private static String required(Map<String, String> options, String key) {
+        String value = options.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + key + "=...");
+        }
+        return value;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,106 @@
+package com.opticoretechnologies.rest.identity.breach;
+
+import com.opticoretechnologies.rest.identity.exception.BadRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * Screens new passwords against a {@link BloomFilterFile} of known-breached SHA-1 password
+ * digests, built offline by {@link BloomFilterFileBuilder}. No external service is called.
+ * <p>
+ * The file is checked every {@code reload-interval-ms} and remapped when it was replaced, so a
+ * new breach list is picked up without a restart; lookups in flight keep using the old mapping.
+ * Without a configured or readable file, screening is off and every password passes; a file
+ * that cannot be reloaded keeps the previous filter in use.
+ */
+@Component
+@Slf4j
+public class BreachedPasswordFilter {
+    private final Path path;
+    private final Counter rejected;
+    private volatile Loaded loaded;
+
+    public BreachedPasswordFilter(@Value("${app.security.breached-passwords.file:}") String file, MeterRegistry meterRegistry) {
+        this.path = file.isBlank() ? null : Path.of(file);
+        this.rejected = Counter.builder("identity.breached_passwords.rejected")
+                .description("Passwords rejected because they appear in the breached password filter")
+                .register(meterRegistry);
+        Gauge.builder("identity.breached_passwords.entries", this, filter -> filter.loaded == null ? 0 : filter.loaded.filter().entries())
+                .description("Entries in the loaded breached password filter")
+                .register(meterRegistry);
+        if (path == null) {
+            log.info("No breached password filter configured, passwords are not screened");
+        } else {
+            reloadIfChanged();
+        }
+    }
+
+    /**
+     * Whether the password may be breached. False positives occur at the rate the filter was
+     * built for, which only means a user has to pick another password.
+     */
+    public boolean isBreached(String password) {
+        Loaded current = loaded;
+        return current != null && current.filter().mightContain(sha1(password));
+    }
+
+    /**
+     * @throws BadRequestException if the password appears in the breached password filter
+     */
+    public void check(String password) {
+        if (password != null && isBreached(password)) {
+            rejected.increment();
+            throw new BadRequestException("This password has appeared in a data breach. Please choose a different one.");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.breached-passwords.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        if (path == null) {
+            return;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            Loaded current = loaded;
+            if (current != null && current.isSameFile(attributes)) {
+                return;
+            }
+            BloomFilterFile filter = BloomFilterFile.open(path);
+            loaded = new Loaded(filter, attributes.fileKey(), attributes.lastModifiedTime().toMillis(), attributes.size());
+            log.info("Loaded breached password filter {} with {} entries ({} bits, {} hashes)",
+                    path, filter.entries(), filter.bitCount(), filter.hashCount());
+        } catch (IOException e) {
+            log.warn("Could not load breached password filter {}: {}", path, e.toString());
+        }
+    }
+
+    static byte[] sha1(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    private record Loaded(BloomFilterFile filter, Object fileKey, long lastModifiedMillis, long size) {
+        boolean isSameFile(BasicFileAttributes attributes) {
+            return Objects.equals(fileKey, attributes.fileKey())
+                    && lastModifiedMillis == attributes.lastModifiedTime().toMillis()
+                    && size == attributes.size();
+        }
+    }
+}
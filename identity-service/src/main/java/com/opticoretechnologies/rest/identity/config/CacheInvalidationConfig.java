@@ -0,0 +1,59 @@
+package com.opticoretechnologies.rest.identity.config;
+
+import com.opticoretechnologies.rest.identity.invalidation.CacheInvalidationBus;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationListener;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationTransport;
+import com.opticoretechnologies.rest.identity.invalidation.LocalInvalidationTransport;
+import com.opticoretechnologies.rest.identity.invalidation.PostgresNotifyInvalidationTransport;
+import com.opticoretechnologies.rest.identity.invalidation.RedisInvalidationTransport;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the cross-node cache invalidation bus. The transport is picked with
+ * {@code app.cache.invalidation.transport}: {@code postgres} (LISTEN/NOTIFY on the primary),
+ * {@code redis} (pub/sub) or {@code local} (in-process only, for single-node setups and tests).
+ */
+@Configuration
+public class CacheInvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.invalidation", name = "transport", havingValue = "postgres")
+    public InvalidationTransport postgresInvalidationTransport(
+            DataSource dataSource,
+            DataSourceProperties properties,
+            @Value("${app.cache.invalidation.channel:identity_cache_invalidation}") String channel) {
+        return new PostgresNotifyInvalidationTransport(dataSource, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword(), channel);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.invalidation", name = "transport", havingValue = "redis")
+    public InvalidationTransport redisInvalidationTransport(
+            RedisConnectionFactory connectionFactory,
+            @Value("${app.cache.invalidation.channel:identity_cache_invalidation}") String channel) {
+        return new RedisInvalidationTransport(connectionFactory, channel);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.invalidation", name = "transport", havingValue = "local", matchIfMissing = true)
+    public InvalidationTransport localInvalidationTransport() {
+        return new LocalInvalidationTransport();
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(
+            InvalidationTransport transport,
+            ObjectProvider<InvalidationListener> listeners,
+            @Value("${app.cache.invalidation.coalesce-window-ms:50}") long coalesceWindowMs,
+            @Value("${app.cache.invalidation.max-pending:10000}") int maxPending) {
+        return new CacheInvalidationBus(transport, listeners.orderedStream().toList(), coalesceWindowMs, maxPending);
+    }
+}
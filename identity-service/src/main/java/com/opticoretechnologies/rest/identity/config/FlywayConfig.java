@@ -0,0 +1,29 @@
+package com.opticoretechnologies.rest.identity.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Lets {@code app.flyway.migrate-on-startup=false} skip the migration at startup. Unlike
+ * {@code spring.flyway.enabled}, which AOT processing evaluates at build time, this is read when
+ * the application runs, so the fast-startup training run can start without a database.
+ */
+@Slf4j
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${app.flyway.migrate-on-startup:true}") boolean migrateOnStartup) {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            } else {
+                log.info("Skipping the Flyway migration, app.flyway.migrate-on-startup is false");
+            }
+        };
+    }
+}
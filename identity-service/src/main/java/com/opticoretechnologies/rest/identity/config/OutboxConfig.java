@@ -0,0 +1,29 @@
+package com.opticoretechnologies.rest.identity.config;
+
+import com.opticoretechnologies.rest.identity.outbox.InMemoryOutboxSink;
+import com.opticoretechnologies.rest.identity.outbox.LoggingOutboxSink;
+import com.opticoretechnologies.rest.identity.outbox.OutboxSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Picks the sink the outbox relay delivers to with {@code app.outbox.sink}: {@code log} (INFO
+ * log lines) or {@code memory} (kept in memory, for tests). A broker sink is added here as
+ * another value.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "log", matchIfMissing = true)
+    public OutboxSink loggingOutboxSink() {
+        return new LoggingOutboxSink();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "memory")
+    public InMemoryOutboxSink inMemoryOutboxSink() {
+        return new InMemoryOutboxSink();
+    }
+}
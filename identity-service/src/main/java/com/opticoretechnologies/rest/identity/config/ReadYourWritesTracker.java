@@ -0,0 +1,115 @@
+package com.opticoretechnologies.rest.identity.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which lookup keys (a username, a refresh-token hash, ...) were written recently so that
+ * reads of those keys are served by the primary instead of a possibly lagging replica.
+ * <p>
+ * Writes are recorded after the surrounding transaction commits; reads wrapped in
+ * {@link #readAfterWrite(String, Supplier)} are pinned to the primary for the configured window.
+ * When replica routing is disabled every method is a cheap no-op.
+ */
+@Component
+@Slf4j
+public class ReadYourWritesTracker {
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long windowMs;
+
+    public ReadYourWritesTracker(
+            @Value("${app.datasource.replica.enabled:false}") boolean enabled,
+            @Value("${app.datasource.replica.read-your-writes-window-ms:5000}") long windowMs) {
+        this.enabled = enabled && windowMs > 0;
+        this.windowMs = windowMs;
+    }
+
+    public static String userKey(String username) {
+        return "user:" + username;
+    }
+
+    public static String refreshTokenKey(String tokenHash) {
+        return "refresh-token:" + tokenHash;
+    }
+
+    public static String accessHandleKey(String handleHash) {
+        return "access-handle:" + handleHash;
+    }
+
+    /**
+     * Returns true when the current thread must read from the primary.
+     * Consulted by {@link ReplicaRoutingDataSource} when a connection is first used.
+     */
+    static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    /**
+     * Records a write of the given key. If a transaction is active the key only becomes
+     * visible after commit, so a rolled back write never pins reads to the primary.
+     */
+    public void recordWrite(String key) {
+        if (!enabled || key == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWrites.put(key, System.currentTimeMillis() + windowMs);
+                }
+            });
+        } else {
+            recentWrites.put(key, System.currentTimeMillis() + windowMs);
+        }
+    }
+
+    /**
+     * Runs the read on the primary if the key was written within the read-your-writes window,
+     * otherwise lets the routing data source pick the replica.
+     */
+    public <T> T readAfterWrite(String key, Supplier<T> read) {
+        if (!enabled || key == null || !isRecentlyWritten(key) || isPinnedToPrimary()) {
+            return read.get();
+        }
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PINNED_TO_PRIMARY.remove();
+        }
+    }
+
+    boolean isRecentlyWritten(String key) {
+        Long until = recentWrites.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            recentWrites.remove(key, until);
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.read-your-writes-window-ms:5000}")
+    public void purgeExpired() {
+        if (!enabled || recentWrites.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        recentWrites.values().removeIf(until -> until < now);
+        log.debug("Read-your-writes entries after purge: {}", recentWrites.size());
+    }
+}
@@ -0,0 +1,60 @@
+package com.opticoretechnologies.rest.identity.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Periodically measures replication lag on the replica and marks it unusable when the lag
+ * exceeds the configured threshold or the replica cannot be reached. While unusable, all
+ * reads go to the primary.
+ * <p>
+ * The lag query must return the lag in milliseconds; the default works on a PostgreSQL
+ * streaming replica and reports 0 once all received WAL has been replayed.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    public static final String POSTGRES_LAG_QUERY =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+                    "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private volatile boolean replicaUsable = true;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMs) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.replicaJdbcTemplate.setQueryTimeout(2);
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        boolean usable;
+        try {
+            Number lag = replicaJdbcTemplate.queryForObject(lagQuery, Number.class);
+            long lagMs = lag == null ? 0 : lag.longValue();
+            usable = lagMs <= maxLagMs;
+            if (!usable && replicaUsable) {
+                log.warn("Replica lag {} ms exceeds {} ms, routing reads to primary", lagMs, maxLagMs);
+            }
+        } catch (Exception e) {
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Replica lag check failed, routing reads to primary: {}", e.getMessage());
+            }
+        }
+        if (usable && !replicaUsable) {
+            log.info("Replica caught up, routing read-only transactions to replica again");
+        }
+        replicaUsable = usable;
+    }
+}
@@ -0,0 +1,40 @@
+package com.opticoretechnologies.rest.identity.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ * <p>
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the lookup happens on first statement, after the transaction manager has set the
+ * read-only flag. Falls back to the primary when the caller is inside its read-your-writes
+ * window or when {@link ReplicaLagMonitor} reports the replica as lagging.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {PRIMARY, REPLICA}
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReadYourWritesTracker.isPinnedToPrimary()
+                || !lagMonitor.isReplicaUsable()) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
@@ -0,0 +1,155 @@
+package com.opticoretechnologies.rest.identity.config;
+
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import com.opticoretechnologies.rest.identity.metrics.TimedPasswordEncoder;
+import com.opticoretechnologies.rest.identity.service.JwkService;
+import com.opticoretechnologies.rest.identity.service.UserDetailsServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+
+@Configuration
+@EnableWebSecurity
+@RequiredArgsConstructor
+public class SequrityConfig {
+    private final JwkService jwkManager;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final AuthMetrics authMetrics;
+
+
+    /**
+     * Introspection tells the caller who a token belongs to, so RFC 7662 section 2.1 requires the
+     * caller to be authorized: resource servers present {@code app.security.introspection.client-secret}
+     * in the {@code app.security.introspection.header}. Other callers get a 401, and while
+     * introspection is disabled everyone does. Startup fails if it is enabled without a secret.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain introspectionSecurityFilterChain(
+            HttpSecurity http,
+            @Value("${app.security.introspection.enabled:false}") boolean enabled,
+            @Value("${app.security.introspection.header:X-Introspection-Secret}") String header,
+            @Value("${app.security.introspection.client-secret:}") String clientSecret) throws Exception {
+        if (enabled && clientSecret.isBlank()) {
+            throw new IllegalStateException("app.security.introspection.client-secret must be set while introspection is enabled");
+        }
+        http.csrf(AbstractHttpConfigurer::disable)
+                .securityMatcher("/api/auth/introspect/**")
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeHttpRequests(authorize -> authorize.anyRequest().access(
+                        sharedSecret(header, enabled ? clientSecret : "")));
+        return http.build();
+    }
+
+    /**
+     * The application declares its own filter chains, so Spring Boot's management security does
+     * not apply and the actuator endpoints would be open to anyone. Health stays open for probes;
+     * metrics, prometheus and info expose internals (outbox lag, error counts, cache sizes) and
+     * require {@code app.security.management.scrape-secret} in the
+     * {@code app.security.management.header}. While no secret is set they answer 401 to everyone.
+     * The whole base path is matched rather than the registered endpoints, so an endpoint exposed
+     * later is covered too.
+     */
+    @Bean
+    @Order(2)
+    public SecurityFilterChain managementSecurityFilterChain(
+            HttpSecurity http,
+            @Value("${app.security.management.header:X-Metrics-Secret}") String header,
+            @Value("${app.security.management.scrape-secret:}") String scrapeSecret) throws Exception {
+        http.csrf(AbstractHttpConfigurer::disable)
+                .securityMatcher("/actuator/**")
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .anyRequest().access(sharedSecret(header, scrapeSecret)));
+        return http.build();
+    }
+
+    /**
+     * Grants requests whose {@code header} equals {@code secret}, compared in constant time. A
+     * blank secret grants nothing.
+     */
+    private static AuthorizationManager<RequestAuthorizationContext> sharedSecret(String header, String secret) {
+        byte[] expected = secret.getBytes(StandardCharsets.UTF_8);
+        return (authentication, context) -> {
+            String presented = context.getRequest().getHeader(header);
+            return new AuthorizationDecision(expected.length > 0 && presented != null
+                    && MessageDigest.isEqual(expected, presented.getBytes(StandardCharsets.UTF_8)));
+        };
+    }
+
+    @Bean
+    public SecurityFilterChain authEndpointsSecurityFilterChain(HttpSecurity http) throws Exception {
+        http.csrf(AbstractHttpConfigurer::disable)
+                .securityMatcher("/api/auth/**")
+
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll());
+        return http.build();
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), authMetrics);
+    }
+
+    @Bean
+    public AuthenticationProvider authenticationProvider() {
+        DaoAuthenticationProvider authProvider =
+                new DaoAuthenticationProvider(userDetailsService);
+        authProvider.setPasswordEncoder(passwordEncoder());    // Set the password encoder.
+        return authProvider;
+    }
+
+    @Bean
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
+        return config.getAuthenticationManager();
+    }
+
+    @Bean
+    public JWKSource<SecurityContext> jwkSource() {
+        return (jwkSelector, securityContext) -> jwkSelector.select(jwkManager.getJwkSet());
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder() {
+        return NimbusJwtDecoder.withJwkSetUri("http://localhost:8080/auth/.well-known/jwks.json").build();
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(JWKSource<SecurityContext> jwkSource) {
+        return new NimbusJwtEncoder(jwkSource);
+    }
+}
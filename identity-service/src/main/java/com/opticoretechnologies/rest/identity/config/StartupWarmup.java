@@ -0,0 +1,169 @@
+package com.opticoretechnologies.rest.identity.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opticoretechnologies.rest.identity.dto.AuthResponse;
+import com.opticoretechnologies.rest.identity.entity.Role;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.repository.RefreshTokenRepository;
+import com.opticoretechnologies.rest.identity.repository.UserRepository;
+import com.opticoretechnologies.rest.identity.service.JwkService;
+import com.opticoretechnologies.rest.identity.service.JwtService;
+import com.opticoretechnologies.rest.identity.service.TokenHashingService;
+import com.opticoretechnologies.rest.identity.service.TokenVerification;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the request hot paths with synthetic data before the service reports ready, so the first
+ * real requests after a deploy do not pay for JIT compilation, class initialization, opening pool
+ * connections or Hibernate query plans.
+ * <p>
+ * Each iteration signs, verifies and decodes an access token for a throwaway in-memory user,
+ * hashes a refresh token, looks up that hash with {@code findByToken} and a random username with
+ * {@code findByUsernameWithRoles}, and serializes an auth response. The lookups are for keys that
+ * do not exist, so nothing is written and nothing needs cleaning up. BCrypt is deliberately slow,
+ * so only {@code password-iterations} hash-and-match rounds run, on the first thread.
+ * <p>
+ * Iterations run on {@code threads} threads at once, which also opens that many pool connections,
+ * and stop after {@code iterations} per thread or {@code max-duration-ms}, whichever comes first.
+ * As an {@link ApplicationRunner} this finishes before Spring Boot publishes
+ * {@code ReadinessState.ACCEPTING_TRAFFIC}, so {@code /actuator/health/readiness} stays down
+ * meanwhile. The time taken is logged and exported as {@code identity.warmup.duration}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class StartupWarmup implements ApplicationRunner {
+    private final JwtService jwtService;
+    private final JwkService jwkService;
+    private final TokenHashingService tokenHashingService;
+    private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final int iterations;
+    private final int threads;
+    private final int passwordIterations;
+    private final long maxDurationMs;
+    private final AtomicLong completedIterations = new AtomicLong();
+    private volatile long durationMs = -1;
+
+    public StartupWarmup(JwtService jwtService, JwkService jwkService, TokenHashingService tokenHashingService,
+                         PasswordEncoder passwordEncoder, RefreshTokenRepository refreshTokenRepository,
+                         UserRepository userRepository, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                         @Value("${app.warmup.iterations:2000}") int iterations,
+                         @Value("${app.warmup.threads:4}") int threads,
+                         @Value("${app.warmup.password-iterations:2}") int passwordIterations,
+                         @Value("${app.warmup.max-duration-ms:15000}") long maxDurationMs) {
+        this.jwtService = jwtService;
+        this.jwkService = jwkService;
+        this.tokenHashingService = tokenHashingService;
+        this.passwordEncoder = passwordEncoder;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.iterations = iterations;
+        this.threads = Math.max(1, threads);
+        this.passwordIterations = passwordIterations;
+        this.maxDurationMs = maxDurationMs;
+        TimeGauge.builder("identity.warmup.duration", this, TimeUnit.MILLISECONDS, warmup -> warmup.durationMs)
+                .description("Time the startup warm-up took, -1 until it finished")
+                .register(meterRegistry);
+        Gauge.builder("identity.warmup.iterations", completedIterations, AtomicLong::get)
+                .description("Warm-up iterations completed across all threads")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        User user = syntheticUser();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int thread = 0; thread < threads; thread++) {
+                boolean hashPasswords = thread == 0;
+                workers.add(executor.submit(() -> {
+                    if (hashPasswords) {
+                        hashPasswords(deadline);
+                    }
+                    runIterations(user, deadline);
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (Exception e) {
+                    // A failed warm-up only means a slower first request; never block startup on it.
+                    log.warn("Warm-up iteration failed, continuing startup: {}", e.getCause() == null ? e.toString() : e.getCause().toString());
+                }
+            }
+        }
+        durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Warm-up ran {} iterations on {} threads in {} ms{}", completedIterations.get(), threads, durationMs,
+                System.nanoTime() > deadline ? " (stopped at max-duration-ms)" : "");
+    }
+
+    public long durationMs() {
+        return durationMs;
+    }
+
+    public long completedIterations() {
+        return completedIterations.get();
+    }
+
+    private void runIterations(User user, long deadline) throws JsonProcessingException {
+        for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+            String accessToken = jwtService.generateToken(user);
+            TokenVerification verification = jwtService.verifyToken(accessToken);
+            if (verification.isValid()) {
+                jwtService.toPrincipal(verification.claims());
+            }
+            String tokenHash = tokenHashingService.hashToken(UUID.randomUUID().toString());
+            refreshTokenRepository.findByToken(tokenHash);
+            userRepository.findByUsernameWithRoles("warmup-" + UUID.randomUUID());
+            objectMapper.writeValueAsString(AuthResponse.builder().accessToken(accessToken).tokenType("Bearer").build());
+            objectMapper.writeValueAsString(jwkService.getJwkSet().toJSONObject());
+            completedIterations.incrementAndGet();
+        }
+    }
+
+    private void hashPasswords(long deadline) {
+        for (int i = 0; i < passwordIterations && System.nanoTime() < deadline; i++) {
+            String hash = passwordEncoder.encode("warmup-password-" + i);
+            passwordEncoder.matches("warmup-password-" + i, hash);
+        }
+    }
+
+    private static User syntheticUser() {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .username("warmup-user")
+                .email("warmup-user@invalid")
+                .password("unused")
+                .roles(Set.of(Role.builder().id(UUID.randomUUID()).name("ROLE_USER").build()))
+                .enabled(true)
+                .accountNonLocked(true)
+                .build();
+    }
+}
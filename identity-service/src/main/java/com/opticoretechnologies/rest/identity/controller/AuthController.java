@@ -0,0 +1,148 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import com.opticoretechnologies.rest.identity.audit.AuthAuditEventType;
+import com.opticoretechnologies.rest.identity.audit.AuthAuditLog;
+import com.opticoretechnologies.rest.identity.dto.AuthResponse;
+import com.opticoretechnologies.rest.identity.dto.AvailabilityResponse;
+import com.opticoretechnologies.rest.identity.dto.IntrospectionBatchRequest;
+import com.opticoretechnologies.rest.identity.dto.IntrospectionResponse;
+import com.opticoretechnologies.rest.identity.dto.LoginRequest;
+import com.opticoretechnologies.rest.identity.dto.RegisterRequest;
+import com.opticoretechnologies.rest.identity.exception.BadRequestException;
+import com.opticoretechnologies.rest.identity.exception.DuplicateResourceException;
+import com.opticoretechnologies.rest.identity.exception.TokenException;
+import com.opticoretechnologies.rest.identity.service.AuthService;
+import com.opticoretechnologies.rest.identity.service.AvailabilityService;
+import com.opticoretechnologies.rest.identity.service.JwkService;
+import com.opticoretechnologies.rest.identity.service.ReferenceTokenService;
+import com.opticoretechnologies.rest.identity.service.RefreshTokenService;
+import com.opticoretechnologies.rest.identity.service.RoleDictionary;
+import com.opticoretechnologies.rest.identity.service.TokenIntrospectionService;
+import com.opticoretechnologies.rest.identity.utils.CookieUtils;
+import com.opticoretechnologies.rest.identity.utils.RequestUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@Slf4j
+public class AuthController {
+
+    private final AuthService authService;
+    private final RefreshTokenService refreshTokenService;
+    private final JwkService jwkService;
+    private final CookieUtils cookieUtils;
+    private final AuthAuditLog authAuditLog;
+    private final TokenIntrospectionService tokenIntrospectionService;
+    private final RoleDictionary roleDictionary;
+    private final AvailabilityService availabilityService;
+    private final ReferenceTokenService referenceTokenService;
+
+    @PostMapping("/register")
+    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) throws DuplicateResourceException {
+        log.info("Registering user with username: {}", registerRequest.getUsername());
+        authService.register(registerRequest);
+        return ResponseEntity.ok(Map.of("message", "User registered successfully!"));
+    }
+
+    /**
+     * Whether a username and/or email can still be registered, for signup forms.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@RequestParam(required = false) String username,
+                                                                  @RequestParam(required = false) String email) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            throw new BadRequestException("Provide a username, an email or both.");
+        }
+        return ResponseEntity.ok(new AvailabilityResponse(
+                username == null || username.isBlank() ? null : availabilityService.isUsernameAvailable(username),
+                email == null || email.isBlank() ? null : availabilityService.isEmailAvailable(email)));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refreshToken(@CookieValue(name = "${app.jwt.refresh-token-cookie-name}", required = false) String rawRefreshToken, HttpServletRequest request, HttpServletResponse response)  {
+        if (rawRefreshToken == null) {
+            throw new TokenException("Refresh token is missing.");
+        }
+        AuthResponse authResponse = authService.refresh(rawRefreshToken, RequestUtils.deviceInfo(request));
+        cookieUtils.createRefreshTokenCookie(authResponse.getTokenType(), response);
+        authResponse.setTokenType("Bearer");
+        return ResponseEntity.ok(authResponse);
+    }
+
+    /**
+     * Revokes the session's refresh token and, when the request carries a reference token,
+     * that token too; JWTs stay valid until they expire.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logoutUser(@CookieValue(name = "${app.jwt.refresh-token-cookie-name}", required = false) String rawRefreshToken, HttpServletRequest request, HttpServletResponse response) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            referenceTokenService.revoke(authHeader.substring(7));
+        }
+        if (rawRefreshToken != null) {
+            refreshTokenService.revokeRefreshToken(rawRefreshToken)
+                    .ifPresent(revoked -> authAuditLog.record(AuthAuditEventType.LOGOUT, revoked.getUser(), RequestUtils.deviceInfo(request)));
+        }
+        cookieUtils.clearRefreshTokenCookie(response); // <-- Use CookieUtils
+        return ResponseEntity.ok(Map.of("message", "You've been signed out successfully."));
+    }
+
+    @PostMapping("/login")
+    public ResponseEntity<AuthResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request, HttpServletResponse response) {
+        String deviceInfo = RequestUtils.deviceInfo(request);
+        AuthResponse authResponse = authService.login(loginRequest, deviceInfo, request);
+//        log.info("Auth response: {}", authResponse.toString());
+
+        String rawRefreshToken = authResponse.getTokenType();
+        cookieUtils.createRefreshTokenCookie(rawRefreshToken, response);
+
+        authResponse.setTokenType("Bearer");
+        return ResponseEntity.ok(authResponse);
+    }
+
+    /**
+     * RFC 7662 token introspection: form-encoded {@code token} and optional {@code token_type_hint}.
+     */
+    @PostMapping(path = "/introspect", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<IntrospectionResponse> introspect(@RequestParam("token") String token,
+                                                            @RequestParam(name = "token_type_hint", required = false) String tokenTypeHint) {
+        return ResponseEntity.ok(tokenIntrospectionService.introspect(token));
+    }
+
+    /**
+     * Batch form of {@link #introspect}: one response per token, in request order.
+     */
+    @PostMapping(path = "/introspect/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<IntrospectionResponse>> introspectBatch(@Valid @RequestBody IntrospectionBatchRequest request) {
+        return ResponseEntity.ok(tokenIntrospectionService.introspectAll(request.getTokens()));
+    }
+
+    /**
+     * The public keys, tagged so that clients polling with {@code If-None-Match} get a 304
+     * until the next rotation.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwkSet() {
+        return ResponseEntity.ok().eTag(jwkService.getJwkSetETag()).body(jwkService.getJwkSet().toJSONObject());
+    }
+
+    /**
+     * The role dictionary that compact access tokens ({@code rv}/{@code rb} claims) refer to.
+     */
+    @GetMapping("/.well-known/roles.json")
+    public ResponseEntity<Map<String, Object>> getRoleDictionary() {
+        return ResponseEntity.ok().eTag(roleDictionary.eTag()).body(roleDictionary.toJsonObject());
+    }
+}
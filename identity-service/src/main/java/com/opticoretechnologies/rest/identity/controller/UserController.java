@@ -0,0 +1,97 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+
+import com.opticoretechnologies.rest.identity.audit.AuthAuditEventType;
+import com.opticoretechnologies.rest.identity.audit.AuthAuditLog;
+import com.opticoretechnologies.rest.identity.dto.AuthResponse;
+import com.opticoretechnologies.rest.identity.dto.SessionInfo;
+import com.opticoretechnologies.rest.identity.dto.UpdatePasswordRequest;
+import com.opticoretechnologies.rest.identity.dto.UpdateUsernameRequest;
+import com.opticoretechnologies.rest.identity.dto.UserInfo;
+import com.opticoretechnologies.rest.identity.entity.RefreshToken;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.service.RefreshTokenService;
+import com.opticoretechnologies.rest.identity.service.TokenPrincipal;
+import com.opticoretechnologies.rest.identity.service.UserService;
+import com.opticoretechnologies.rest.identity.utils.CookieUtils;
+import com.opticoretechnologies.rest.identity.utils.RequestUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/user")
+@RequiredArgsConstructor
+public class UserController {
+    private final UserService userService;
+    private final CookieUtils cookieUtils;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthAuditLog authAuditLog;
+
+    @PatchMapping("/update/password")
+    public ResponseEntity<AuthResponse> updatePassword(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody UpdatePasswordRequest request,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+
+        String deviceInfo = RequestUtils.deviceInfo(httpRequest);
+        // The access token is issued by the service, at the user's new token version
+        AuthResponse authResponse = userService.updatePassword(userDetails.getUsername(), request, deviceInfo);
+
+        // Set the new refresh token in the cookie
+        cookieUtils.createRefreshTokenCookie(authResponse.getTokenType(), httpResponse);
+
+        // Return the new access token to the client
+        authResponse.setTokenType("Bearer");
+        return ResponseEntity.ok(authResponse);
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<UserInfo> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // Never serialize the entity itself: it carries the password hash and lazy associations.
+        String email = switch (userDetails) {
+            case User user -> user.getEmail();
+            case TokenPrincipal principal -> principal.email();
+            default -> null;
+        };
+        return ResponseEntity.ok(UserInfo.builder().username(userDetails.getUsername()).email(email).build());
+    }
+
+    @PatchMapping("/update/username")
+    public ResponseEntity<AuthResponse> updateUsername(@AuthenticationPrincipal UserDetails userDetails, @Valid @RequestBody UpdateUsernameRequest request)  {
+        AuthResponse authResponse = userService.updateUsername(userDetails.getUsername(), request);
+        return ResponseEntity.ok(authResponse);
+    }
+
+    @GetMapping("/sessions")
+    public ResponseEntity<List<SessionInfo>> getSessions(@AuthenticationPrincipal UserDetails userDetails, HttpServletRequest request) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        String currentRefreshToken = cookieUtils.getRefreshTokenFromCookie(request);
+        return ResponseEntity.ok(refreshTokenService.listSessions(userDetails.getUsername(), currentRefreshToken));
+    }
+
+    @DeleteMapping("/sessions/{id}")
+    public ResponseEntity<Void> revokeSession(@AuthenticationPrincipal UserDetails userDetails, @PathVariable UUID id) {
+        if (userDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        RefreshToken revoked = refreshTokenService.revokeSession(userDetails.getUsername(), id);
+        authAuditLog.record(AuthAuditEventType.SESSION_REVOKED, revoked.getUser().getId(), userDetails.getUsername(), revoked.getDeviceInfo());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.opticoretechnologies.rest.identity.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Whether the requested username and email are still free. Only the ones asked about are
+ * present.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AvailabilityResponse(Boolean username, Boolean email) {
+}
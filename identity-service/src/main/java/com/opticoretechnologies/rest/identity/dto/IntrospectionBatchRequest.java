@@ -0,0 +1,19 @@
+package com.opticoretechnologies.rest.identity.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class IntrospectionBatchRequest {
+    @NotEmpty(message = "At least one token is required.")
+    private List<String> tokens;
+
+    @JsonProperty("token_type_hint")
+    private String tokenTypeHint;
+}
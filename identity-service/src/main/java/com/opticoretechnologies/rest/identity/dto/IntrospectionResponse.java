@@ -0,0 +1,32 @@
+package com.opticoretechnologies.rest.identity.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Token introspection response as defined by RFC 7662, section 2.2. Absent members are left
+ * out, so an inactive token serializes to {@code {"active":false}} and nothing else.
+ * Instances are immutable and shared: {@link #INACTIVE} for every rejected token, and cached
+ * instances for active access tokens.
+ *
+ * @param exp   expiry in seconds since the epoch
+ * @param iat   issue time in seconds since the epoch
+ * @param roles non-standard extension member: the granted authorities of an access token
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IntrospectionResponse(
+        boolean active,
+        @JsonProperty("token_type") String tokenType,
+        String sub,
+        String username,
+        Long exp,
+        Long iat,
+        List<String> roles) {
+
+    public static final String ACCESS_TOKEN = "access_token";
+    public static final String REFRESH_TOKEN = "refresh_token";
+
+    public static final IntrospectionResponse INACTIVE = new IntrospectionResponse(false, null, null, null, null, null, null);
+}
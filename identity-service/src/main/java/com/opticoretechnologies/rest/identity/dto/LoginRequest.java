@@ -15,4 +15,9 @@ public class LoginRequest {
 
     @NotEmpty(message = "Password cannot be empty.")
     private String password;
+
+    /**
+     * Access token format, {@code jwt} or {@code reference}; the configured default if absent.
+     */
+    private String tokenFormat;
 }
\ No newline at end of file
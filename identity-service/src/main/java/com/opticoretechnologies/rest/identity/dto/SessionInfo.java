@@ -0,0 +1,18 @@
+package com.opticoretechnologies.rest.identity.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+public class SessionInfo {
+    private UUID id;
+    private String deviceInfo;
+    private Instant issuedAt;
+    private Instant expiresAt;
+    /** Whether this is the session of the refresh cookie sent with the request. */
+    private boolean current;
+}
@@ -0,0 +1,50 @@
+package com.opticoretechnologies.rest.identity.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An opaque access token ("reference token"). Only the SHA-256 of the handle is stored, as for
+ * refresh tokens; the handle itself is returned once, at issue time.
+ * <p>
+ * The token version of the user at issue time is kept so that a version bump revokes handles
+ * as it revokes JWTs, without touching these rows. The index on expires_at for the purge is
+ * defined in the Flyway migration.
+ */
+@Entity
+@Table(name = "_access_handles")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = "user")
+@EqualsAndHashCode(exclude = "user")
+public class AccessHandle {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String handle;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private int tokenVersion;
+
+    @Column(nullable = false)
+    private Instant issuedAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+}
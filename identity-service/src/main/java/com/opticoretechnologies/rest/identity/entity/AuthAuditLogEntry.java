@@ -0,0 +1,48 @@
+package com.opticoretechnologies.rest.identity.entity;
+
+import com.opticoretechnologies.rest.identity.audit.AuthAuditEventType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A row of the authentication audit log.
+ * <p>
+ * Rows are written in JDBC batches by {@link com.opticoretechnologies.rest.identity.audit.AuthAuditLog},
+ * never through JPA; the mapping exists for schema generation and for reading the log back.
+ * The user is referenced by ID only, without a foreign key, so audit rows survive account
+ * deletion and inserting them never touches {@code _users}.
+ */
+@Entity
+@Immutable
+@Table(name = "_auth_audit_log", indexes = {
+        @Index(name = "idx_auth_audit_user_time", columnList = "user_id, occurred_at"),
+        @Index(name = "idx_auth_audit_time", columnList = "occurred_at")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class AuthAuditLogEntry {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private AuthAuditEventType eventType;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(length = 255)
+    private String username;
+
+    @Column(name = "device_info", length = 512)
+    private String deviceInfo;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
@@ -19,6 +19,8 @@ import java.util.UUID;
  * validate the token itself without loading the full user object.
  * 4.  @GeneratedValue on ID: Removes the need for @NotEmpty validation, as the persistence
  * provider guarantees the ID's existence.
+ * 5.  Indexes on user_id and expiry_date, including the partial index of unrevoked tokens,
+ * are defined in the Flyway migrations (db/migration); JPA cannot express them.
  */
 @Entity
 @Table(name = "_refresh_tokens", indexes = {
@@ -59,4 +61,10 @@ public class RefreshToken {
     private boolean revoked;
 
     private String deviceInfo;
+
+    /**
+     * Whether the session's access tokens are reference tokens rather than JWTs.
+     */
+    @Column(nullable = false)
+    private boolean referenceAccess;
 }
@@ -3,6 +3,8 @@ package com.opticoretechnologies.rest.identity.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -22,6 +24,8 @@ import java.util.UUID;
  * lazy loading of the entire users collection and avoids recursive loops.
  * Equality is based on the role's own fields (id, name), not the users who have it.
  * 3.  The 'users' collection is LAZY fetched by default on @ManyToMany.
+ * 4.  READ_ONLY second-level cache: roles are created once and never updated, so they are
+ * served from the node-local cache without touching the database.
  */
 @Entity
 @Table(name = "_roles", indexes = {
@@ -34,6 +38,7 @@ import java.util.UUID;
 @AllArgsConstructor
 @ToString(exclude = "users")
 @EqualsAndHashCode(exclude = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 public class Role {
 
     @Id
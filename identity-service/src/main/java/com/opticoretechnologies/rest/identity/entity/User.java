@@ -5,7 +5,11 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -27,6 +31,11 @@ import java.util.stream.Collectors;
  * Related data should be fetched on-demand with JOIN FETCH in the repository layer.
  * 4.  Cascade & Orphan Removal: The 'refreshTokens' relationship is configured to manage
  * the lifecycle of tokens automatically when a user is modified or deleted.
+ * 5.  Second-level cache: the entity, its 'roles' collection and the username natural id are
+ * cached READ_WRITE, so a warm lookup by username needs no SQL at all.
+ * 6.  Write-behind activity: 'lastLoginAt' and 'lastSeenAt' are read-only for Hibernate and
+ * updated in batches outside the request path.
+ * 7.  Token version: bumping 'tokenVersion' revokes every access token issued to the user so far.
  */
 @Entity
 @Table(name = "_users", indexes = {
@@ -40,6 +49,8 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 @ToString(exclude = {"roles", "refreshTokens"})
 @EqualsAndHashCode(exclude = {"roles", "refreshTokens"})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
 public class User implements UserDetails {
 
     @Id
@@ -50,6 +61,7 @@ public class User implements UserDetails {
     @NotEmpty(message = "Username cannot be empty.")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters.")
     @Column(nullable = false, unique = true, length = 50)
+    @NaturalId(mutable = true)
     private String username;
 
     @NotEmpty(message = "Password cannot be empty.")
@@ -69,9 +81,18 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private boolean accountNonLocked = true;
 
+    /**
+     * Embedded in access tokens as the {@code tv} claim; see
+     * {@link com.opticoretechnologies.rest.identity.service.TokenVersionRegistry}.
+     */
+    @Builder.Default
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion = 0;
+
     // --- Relationships ---
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"),
@@ -98,6 +119,19 @@ public class User implements UserDetails {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    /**
+     * Written behind by {@link com.opticoretechnologies.rest.identity.service.UserActivityTracker},
+     * never by Hibernate, so a user saved from a stale copy cannot move them backwards.
+     * May lag the actual activity by up to the tracker's flush interval and, on an entity from
+     * the second-level cache, by up to the cache lifetime; see
+     * {@link com.opticoretechnologies.rest.identity.repository.UserRepository#findActivityById}.
+     */
+    @Column(name = "last_login_at", insertable = false, updatable = false)
+    private Instant lastLoginAt;
+
+    @Column(name = "last_seen_at", insertable = false, updatable = false)
+    private Instant lastSeenAt;
+
     // --- UserDetails Implementation ---
 
     /**
@@ -0,0 +1,10 @@
+package com.opticoretechnologies.rest.identity.exception;
+
+/**
+ * The credentials were correct, but the account is disabled or locked.
+ */
+public class AccountUnavailableException extends DomainException {
+    public AccountUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.opticoretechnologies.rest.identity.exception;
+
+/**
+ * Base for exceptions that describe an expected outcome (bad input, unknown resource, invalid
+ * token) rather than a bug. They can be thrown thousands of times a second under attack and
+ * their stack trace is never logged, so they skip capturing one.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+
+    protected DomainException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
@@ -0,0 +1,11 @@
+package com.opticoretechnologies.rest.identity.exception;
+
+/**
+ * Login failed: unknown user, wrong password, or an account that may not sign in.
+ * Deliberately does not say which.
+ */
+public class InvalidCredentialsException extends DomainException {
+    public InvalidCredentialsException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,6 @@
 package com.opticoretechnologies.rest.identity.exception;
 
-public class TokenException extends RuntimeException {
+public class TokenException extends DomainException {
     public TokenException(String message) {
         super(message);
     }
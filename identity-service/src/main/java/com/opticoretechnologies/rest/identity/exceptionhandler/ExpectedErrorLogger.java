@@ -0,0 +1,105 @@
+package com.opticoretechnologies.rest.identity.exceptionhandler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Logs expected client errors (4xx) without letting them flood the log.
+ * <p>
+ * Every occurrence is counted in {@code identity.http.expected_errors{status,exception}}, but
+ * per status and exception type at most {@code max-per-second} lines are written; the rest are
+ * dropped and their number is reported as {@code suppressed} on the next line that gets through.
+ * Lines carry structured key-values and never a stack trace.
+ */
+@Component
+@Slf4j
+public class ExpectedErrorLogger {
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxPerSecond;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ExpectedErrorLogger(MeterRegistry meterRegistry,
+                               @Value("${app.logging.expected-errors.max-per-second:5}") int maxPerSecond) {
+        this(meterRegistry, maxPerSecond, System::nanoTime);
+    }
+
+    ExpectedErrorLogger(MeterRegistry meterRegistry, int maxPerSecond, LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.maxPerSecond = maxPerSecond;
+        this.nanoClock = nanoClock;
+    }
+
+    public void log(HttpStatus status, Exception ex, HttpServletRequest request) {
+        String exception = ex.getClass().getSimpleName();
+        Window window = windows.computeIfAbsent(status.value() + ":" + exception, key -> new Window(
+                Counter.builder("identity.http.expected_errors")
+                        .description("Expected client errors returned, by status and exception")
+                        .tag("status", String.valueOf(status.value()))
+                        .tag("exception", exception)
+                        .register(meterRegistry)));
+        window.counter.increment();
+
+        long suppressed = window.tryAcquire(nanoClock.getAsLong(), maxPerSecond);
+        if (suppressed < 0) {
+            return;
+        }
+        log.atInfo()
+                .addKeyValue("status", status.value())
+                .addKeyValue("exception", exception)
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("suppressed", suppressed)
+                .log("{} {} -> {} {}: {} ({} similar suppressed)", request.getMethod(), request.getRequestURI(),
+                        status.value(), exception, ex.getMessage(), suppressed);
+    }
+
+    /**
+     * Fixed one-second window per status and exception type.
+     */
+    private static final class Window {
+        private final Counter counter;
+        private final AtomicLong start = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicInteger logged = new AtomicInteger();
+        private final LongAdder suppressed = new LongAdder();
+
+        private Window(Counter counter) {
+            this.counter = counter;
+        }
+
+        /**
+         * Returns the number of lines suppressed since the last one logged if this one may be
+         * logged, or -1 if it must be dropped.
+         */
+        long tryAcquire(long now, int maxPerWindow) {
+            long windowStart = start.get();
+            if (windowStart == Long.MIN_VALUE || now - windowStart >= WINDOW_NANOS) {
+                if (start.compareAndSet(windowStart, now)) {
+                    logged.set(0);
+                }
+            }
+            if (logged.incrementAndGet() > maxPerWindow) {
+                suppressed.increment();
+                return -1;
+            }
+            return suppressed.sumThenReset();
+        }
+    }
+}
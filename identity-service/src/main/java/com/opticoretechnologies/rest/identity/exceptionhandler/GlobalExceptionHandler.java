@@ -1,11 +1,14 @@
 package com.opticoretechnologies.rest.identity.exceptionhandler;
 
 
+import com.opticoretechnologies.rest.identity.exception.AccountUnavailableException;
 import com.opticoretechnologies.rest.identity.exception.BadRequestException;
 import com.opticoretechnologies.rest.identity.exception.DuplicateResourceException;
+import com.opticoretechnologies.rest.identity.exception.InvalidCredentialsException;
 import com.opticoretechnologies.rest.identity.exception.ResourceNotFoundException;
 import com.opticoretechnologies.rest.identity.exception.TokenException;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import com.opticoretechnologies.rest.identity.dto.ErrorResponse;
 import org.springframework.http.HttpStatus;
@@ -13,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -20,13 +24,20 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Maps exceptions to error responses. Expected client errors go through
+ * {@link ExpectedErrorLogger} (rate-limited, no stack trace); only unexpected errors are logged
+ * with their full stack trace.
+ */
 @RestControllerAdvice
+@RequiredArgsConstructor
 @Slf4j
 public class GlobalExceptionHandler {
+    private final ExpectedErrorLogger expectedErrorLogger;
 
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex , HttpServletRequest request) {
-        log.error("Resource not found: {} {} ", ex.getMessage(),request.getRequestURI() , ex); // Log the full stack trace
+        expectedErrorLogger.log(HttpStatus.NOT_FOUND, ex, request);
         ErrorResponse errorResponse = getErrorResponse(HttpStatus.NOT_FOUND, request, ex);
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
 
@@ -34,27 +45,44 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ErrorResponse> handleBadRequest(BadRequestException ex , HttpServletRequest request) {
-        log.error("Bad request: {} {} ", ex.getMessage(),request.getRequestURI(), ex);
+        expectedErrorLogger.log(HttpStatus.BAD_REQUEST, ex, request);
         ErrorResponse errorResponse = getErrorResponse(HttpStatus.BAD_REQUEST, request, ex);
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
 
     }
 
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleBadCredentialsException(BadCredentialsException ex, HttpServletRequest request) {
-       log.error("Bad credentials: {} {} ", ex.getMessage(),request.getRequestURI(), ex);
+        expectedErrorLogger.log(HttpStatus.UNAUTHORIZED, ex, request);
         ErrorResponse errorResponse = getErrorResponse(HttpStatus.UNAUTHORIZED, request, ex);
         errorResponse.setMessage("Invalid username or password");
         return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
     }
+
+    @ExceptionHandler(InvalidCredentialsException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCredentialsException(InvalidCredentialsException ex, HttpServletRequest request) {
+        expectedErrorLogger.log(HttpStatus.UNAUTHORIZED, ex, request);
+        ErrorResponse errorResponse = getErrorResponse(HttpStatus.UNAUTHORIZED, request, ex);
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(AccountUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleAccountUnavailableException(AccountUnavailableException ex, HttpServletRequest request) {
+        expectedErrorLogger.log(HttpStatus.FORBIDDEN, ex, request);
+        ErrorResponse errorResponse = getErrorResponse(HttpStatus.FORBIDDEN, request, ex);
+        return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
+    }
+
     @ExceptionHandler(DuplicateResourceException.class)
     public ResponseEntity<ErrorResponse> handleDuplicateResourceException(DuplicateResourceException ex, HttpServletRequest request) {
+        expectedErrorLogger.log(HttpStatus.CONFLICT, ex, request);
         ErrorResponse errorResponse = getErrorResponse(HttpStatus.CONFLICT, request, ex);
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex, HttpServletRequest request) {
+        expectedErrorLogger.log(HttpStatus.BAD_REQUEST, ex, request);
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
@@ -69,8 +97,16 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ErrorResponse> handleMissingParameter(MissingServletRequestParameterException ex, HttpServletRequest request) {
+        expectedErrorLogger.log(HttpStatus.BAD_REQUEST, ex, request);
+        ErrorResponse errorResponse = getErrorResponse(HttpStatus.BAD_REQUEST, request, ex);
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(TokenException.class)
     public ResponseEntity<ErrorResponse> handleTokenException(TokenException ex, HttpServletRequest request) {
+        expectedErrorLogger.log(HttpStatus.UNAUTHORIZED, ex, request);
         ErrorResponse errorResponse = getErrorResponse(HttpStatus.UNAUTHORIZED, request, ex);
         return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
     }
@@ -0,0 +1,131 @@
+package com.opticoretechnologies.rest.identity.filter;
+
+
+import com.opticoretechnologies.rest.identity.exception.TokenException;
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import com.opticoretechnologies.rest.identity.service.JwtService;
+import com.opticoretechnologies.rest.identity.service.ReferenceTokenService;
+import com.opticoretechnologies.rest.identity.service.TokenVerification;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests carrying a bearer access token. By default the user is loaded on every
+ * request (served from the second-level cache when warm), so disabling an account or changing
+ * roles takes effect immediately. With {@code app.security.jwt.stateless=true} the principal is
+ * built from the token claims alone and no user lookup happens at all.
+ * <p>
+ * Reference tokens are resolved through {@link ReferenceTokenService} and always load the user.
+ * Requests to {@code app.security.reference-tokens.required-paths} are only authenticated by
+ * reference tokens, so endpoints that must honour revocation at once cannot be reached with a
+ * JWT that stays valid until it expires.
+ */
+@Component
+@Slf4j
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+    private final ReferenceTokenService referenceTokenService;
+    private final AuthMetrics authMetrics;
+    private final boolean stateless;
+    private final List<String> referenceOnlyPaths;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   ReferenceTokenService referenceTokenService, AuthMetrics authMetrics,
+                                   @Value("${app.security.jwt.stateless:false}") boolean stateless,
+                                   @Value("${app.security.reference-tokens.required-paths:}") List<String> referenceOnlyPaths) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.referenceTokenService = referenceTokenService;
+        this.authMetrics = authMetrics;
+        this.stateless = stateless;
+        this.referenceOnlyPaths = List.copyOf(referenceOnlyPaths);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
+        final String authHeader = request.getHeader("Authorization");
+        if (!StringUtils.hasText(authHeader) || !authHeader.startsWith("Bearer ")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            long start = System.nanoTime();
+            authenticate(request, authHeader.substring(7));
+            AuthMetrics.record(authMetrics.getFilterAuthentication(), start);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(HttpServletRequest request, String token) {
+        UserDetails userDetails;
+        if (ReferenceTokenService.isHandle(token)) {
+            userDetails = referenceTokenService.resolve(token)
+                    .map(handle -> userDetailsService.loadUserByUsername(handle.username()))
+                    .orElse(null);
+        } else if (requiresReferenceToken(request)) {
+            log.debug("JWT presented to reference-token-only path {}", request.getRequestURI());
+            userDetails = null;
+        } else {
+            userDetails = authenticateJwt(token);
+        }
+        if (userDetails == null) {
+            return;
+        }
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
+    private UserDetails authenticateJwt(String jwt) {
+        // Verify before touching the database, so forged or expired tokens cost no user lookup.
+        TokenVerification verification = jwtService.verifyToken(jwt);
+        if (!verification.isValid()) {
+            return null;
+        }
+        String username = verification.claims().getSubject();
+        if (!StringUtils.hasText(username)) {
+            return null;
+        }
+        if (!stateless) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+        try {
+            return jwtService.toPrincipal(verification.claims());
+        } catch (TokenException e) {
+            log.debug("Ignoring access token with undecodable claims: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean requiresReferenceToken(HttpServletRequest request) {
+        if (referenceOnlyPaths.isEmpty()) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : referenceOnlyPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
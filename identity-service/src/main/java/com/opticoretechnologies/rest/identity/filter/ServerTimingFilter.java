@@ -0,0 +1,86 @@
+package com.opticoretechnologies.rest.identity.filter;
+
+import com.opticoretechnologies.rest.identity.metrics.ServerTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Times a request by phase ({@link ServerTiming}) when it carries the privileged
+ * {@code app.server-timing.header} with the configured token, and reports the phases as a
+ * {@code Server-Timing} response header and as key-value pairs of one log event.
+ * <p>
+ * Requests without the header, and all requests while no token is configured, pass straight
+ * through. For timed requests the response body is buffered, so the header can still be set
+ * after the controller has written it.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private final String header;
+    private final byte[] token;
+
+    public ServerTimingFilter(@Value("${app.server-timing.header:X-Server-Timing-Token}") String header,
+                              @Value("${app.server-timing.token:}") String token) {
+        this.header = header;
+        this.token = token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!isPrivileged(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        ServerTiming timing = ServerTiming.begin();
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, buffered);
+        } finally {
+            ServerTiming.end();
+            timing.add("total", System.nanoTime() - start);
+            buffered.setHeader(SERVER_TIMING, timing.toHeaderValue());
+            buffered.copyBodyToResponse();
+            log(request, buffered.getStatus(), timing);
+        }
+    }
+
+    private boolean isPrivileged(HttpServletRequest request) {
+        if (token == null) {
+            return false;
+        }
+        String presented = request.getHeader(header);
+        return presented != null && MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void log(HttpServletRequest request, int status, ServerTiming timing) {
+        LoggingEventBuilder event = log.atInfo()
+                .setMessage("Server timing {} {} -> {}: {}")
+                .addArgument(request.getMethod())
+                .addArgument(request.getRequestURI())
+                .addArgument(status)
+                .addArgument(timing::toHeaderValue);
+        for (int i = 0; i < timing.size(); i++) {
+            event = event.addKeyValue("timing." + timing.name(i) + ".ms", timing.millis(i));
+        }
+        event.log();
+    }
+}
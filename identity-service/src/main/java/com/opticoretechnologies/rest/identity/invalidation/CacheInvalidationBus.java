@@ -0,0 +1,210 @@
+package com.opticoretechnologies.rest.identity.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Broadcasts invalidations of node-local caches to the other instances.
+ * <p>
+ * Events are queued after the publishing transaction commits, coalesced for a short window and
+ * flushed by a background thread, so publishing never blocks a request. Each message carries
+ * the sender's node id and is ignored by the sender itself, which already invalidated locally.
+ * When more events pile up than {@code maxPending}, or the transport reports that messages may
+ * have been lost, listeners are told to resync, i.e. drop everything.
+ * <p>
+ * Message format: the node id on the first line, then one {@code TYPE<TAB>key} per line,
+ * or the single line {@code *} for a full resync.
+ */
+@Slf4j
+public class CacheInvalidationBus implements SmartLifecycle, InvalidationTransport.Receiver {
+    private static final String RESYNC_ALL = "*";
+    private static final long CONNECTION_CHECK_INTERVAL_MS = 5_000;
+
+    private final InvalidationTransport transport;
+    private final List<InvalidationListener> listeners;
+    private final long coalesceWindowMs;
+    private final int maxPending;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Set<InvalidationEvent> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean resyncPending = new AtomicBoolean();
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public CacheInvalidationBus(InvalidationTransport transport, List<InvalidationListener> listeners,
+                                long coalesceWindowMs, int maxPending) {
+        this.transport = transport;
+        this.listeners = List.copyOf(listeners);
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Publishes an invalidation to the other nodes once the current transaction commits,
+     * or right away when no transaction is active.
+     */
+    public void publish(InvalidationType type, Object key) {
+        InvalidationEvent event = new InvalidationEvent(type, String.valueOf(key));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    /**
+     * Tells every other node to drop all cached state.
+     */
+    public void publishResync() {
+        resyncPending.set(true);
+    }
+
+    private void enqueue(InvalidationEvent event) {
+        if (pending.size() >= maxPending) {
+            resyncPending.set(true);
+            return;
+        }
+        pending.add(event);
+    }
+
+    /**
+     * Sends everything queued so far. Runs on the flusher thread; public for tests and shutdown.
+     */
+    public void flush() {
+        if (resyncPending.getAndSet(false)) {
+            pending.clear();
+            send(nodeId + "\n" + RESYNC_ALL);
+            return;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<InvalidationEvent> batch = new ArrayList<>(pending);
+        pending.removeAll(batch);
+
+        int limit = transport.maxPayloadBytes();
+        StringBuilder payload = new StringBuilder(nodeId);
+        int payloadBytes = payload.length();
+        for (InvalidationEvent event : batch) {
+            String line = "\n" + event.type().name() + "\t" + event.key();
+            int lineBytes = line.getBytes(StandardCharsets.UTF_8).length;
+            if (payloadBytes + lineBytes > limit) {
+                send(payload.toString());
+                payload.setLength(0);
+                payload.append(nodeId);
+                payloadBytes = payload.length();
+            }
+            payload.append(line);
+            payloadBytes += lineBytes;
+        }
+        send(payload.toString());
+    }
+
+    private void send(String payload) {
+        try {
+            transport.publish(payload);
+        } catch (RuntimeException e) {
+            // The other nodes may now hold stale entries; make them drop everything next time.
+            log.warn("Failed to publish cache invalidations, scheduling a full resync: {}", e.getMessage());
+            resyncPending.set(true);
+        }
+    }
+
+    @Override
+    public void onMessage(String payload) {
+        int firstLineEnd = payload.indexOf('\n');
+        if (firstLineEnd < 0 || payload.startsWith(nodeId + "\n")) {
+            return;
+        }
+        String body = payload.substring(firstLineEnd + 1);
+        if (RESYNC_ALL.equals(body)) {
+            onResync();
+            return;
+        }
+        for (String line : body.split("\n")) {
+            int tab = line.indexOf('\t');
+            if (tab < 0) {
+                continue;
+            }
+            InvalidationType type;
+            try {
+                type = InvalidationType.valueOf(line.substring(0, tab));
+            } catch (IllegalArgumentException e) {
+                log.debug("Ignoring unknown invalidation type in '{}'", line);
+                continue;
+            }
+            InvalidationEvent event = new InvalidationEvent(type, line.substring(tab + 1));
+            for (InvalidationListener listener : listeners) {
+                listener.onInvalidation(event);
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        log.info("Resyncing node-local caches");
+        for (InvalidationListener listener : listeners) {
+            listener.onResync();
+        }
+    }
+
+    @Override
+    public void start() {
+        transport.start(this);
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-invalidation-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, coalesceWindowMs, coalesceWindowMs, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(transport::checkConnection,
+                CONNECTION_CHECK_INTERVAL_MS, CONNECTION_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushQuietly();
+        transport.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Cache invalidation flush failed", e);
+        }
+    }
+}
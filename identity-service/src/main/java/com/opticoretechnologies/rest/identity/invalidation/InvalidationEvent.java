@@ -0,0 +1,8 @@
+package com.opticoretechnologies.rest.identity.invalidation;
+
+/**
+ * A single invalidation, identified by its type and key. Equal events published within the
+ * same coalescing window are sent once.
+ */
+public record InvalidationEvent(InvalidationType type, String key) {
+}
@@ -0,0 +1,18 @@
+package com.opticoretechnologies.rest.identity.invalidation;
+
+/**
+ * Implemented by node-local caches that must drop entries changed on other instances.
+ */
+public interface InvalidationListener {
+
+    /**
+     * Called for every event published by another node.
+     */
+    void onInvalidation(InvalidationEvent event);
+
+    /**
+     * Called when events may have been missed, e.g. after the transport reconnects.
+     * Implementations must drop everything they cache.
+     */
+    void onResync();
+}
@@ -0,0 +1,39 @@
+package com.opticoretechnologies.rest.identity.invalidation;
+
+/**
+ * Moves encoded invalidation messages between nodes. Implementations only deal with opaque
+ * string payloads; encoding, coalescing and dispatch live in {@link CacheInvalidationBus}.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Largest payload, in UTF-8 bytes, a single {@link #publish(String)} call may carry.
+     */
+    int maxPayloadBytes();
+
+    /**
+     * Starts receiving messages. Every message published by any node, including this one,
+     * is passed to {@link Receiver#onMessage(String)}.
+     */
+    void start(Receiver receiver);
+
+    void publish(String payload);
+
+    void stop();
+
+    /**
+     * Called periodically by the bus; transports that cannot detect reconnects on their own
+     * use it to probe the connection and trigger a resync.
+     */
+    default void checkConnection() {
+    }
+
+    interface Receiver {
+        void onMessage(String payload);
+
+        /**
+         * Messages may have been lost, typically because the connection dropped and was re-established.
+         */
+        void onResync();
+    }
+}
@@ -0,0 +1,26 @@
+package com.opticoretechnologies.rest.identity.invalidation;
+
+/**
+ * Kinds of node-local state that can be invalidated across instances.
+ * The event key is interpreted per type.
+ */
+public enum InvalidationType {
+    /** Key: user id. Cached user entity and roles collection are stale. */
+    USER,
+    /** Key: user id. As {@link #USER}, and the username natural-id mapping changed. */
+    USER_RENAMED,
+    /**
+     * Key: username. The username was taken by a registration or rename. Carried in the key so
+     * receivers need not look the user up, which could return a stale cached entity or hit a
+     * lagging replica.
+     */
+    USERNAME_TAKEN,
+    /** Key: email. As {@link #USERNAME_TAKEN}, for the email of a registration. */
+    EMAIL_TAKEN,
+    /** Key: role name. Cached roles are stale. */
+    ROLE,
+    /** Key: {@code userId:version}. Access tokens of the user below that version are revoked. */
+    TOKEN_VERSION,
+    /** Key: access handle hash. The reference token was revoked. */
+    ACCESS_HANDLE
+}
@@ -0,0 +1,63 @@
+package com.opticoretechnologies.rest.identity.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process transport. Every transport created on the same {@link Hub} receives the messages
+ * of the others, which is how tests simulate several nodes in one JVM. A standalone instance
+ * is a valid single-node setup.
+ */
+public class LocalInvalidationTransport implements InvalidationTransport {
+    private final Hub hub;
+    private volatile Receiver receiver;
+
+    public LocalInvalidationTransport() {
+        this(new Hub());
+    }
+
+    public LocalInvalidationTransport(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public int maxPayloadBytes() {
+        return 64 * 1024;
+    }
+
+    @Override
+    public void start(Receiver receiver) {
+        this.receiver = receiver;
+        hub.members.add(this);
+    }
+
+    @Override
+    public void publish(String payload) {
+        for (LocalInvalidationTransport member : hub.members) {
+            Receiver target = member.receiver;
+            if (target != null) {
+                target.onMessage(payload);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        hub.members.remove(this);
+        receiver = null;
+    }
+
+    /**
+     * Simulates losing the connection: the receiver is told to resync.
+     */
+    public void simulateReconnect() {
+        Receiver target = receiver;
+        if (target != null) {
+            target.onResync();
+        }
+    }
+
+    public static class Hub {
+        private final List<LocalInvalidationTransport> members = new CopyOnWriteArrayList<>();
+    }
+}
@@ -0,0 +1,139 @@
+package com.opticoretechnologies.rest.identity.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+/**
+ * Transport on PostgreSQL {@code LISTEN/NOTIFY}.
+ * <p>
+ * Publishing goes through the regular pool with {@code pg_notify}. Listening needs a session of
+ * its own, so a dedicated, unpooled connection is held by a daemon thread that polls for
+ * notifications. When that connection breaks the thread reconnects with exponential backoff
+ * and asks for a full resync, since notifications sent in between are lost.
+ */
+@Slf4j
+public class PostgresNotifyInvalidationTransport implements InvalidationTransport {
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+    private Thread listenerThread;
+
+    public PostgresNotifyInvalidationTransport(DataSource dataSource, String url, String username, String password, String channel) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid NOTIFY channel name: " + channel);
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+    }
+
+    @Override
+    public int maxPayloadBytes() {
+        // NOTIFY payloads must be shorter than 8000 bytes.
+        return 7900;
+    }
+
+    @Override
+    public void start(Receiver receiver) {
+        running = true;
+        listenerThread = new Thread(() -> listenLoop(receiver), "pg-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void publish(String payload) {
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeQuietly(listenConnection);
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listenLoop(Receiver receiver) {
+        long backoffMs = 250;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                listenConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for cache invalidations on channel '{}'", channel);
+                if (connectedBefore) {
+                    receiver.onResync();
+                }
+                connectedBefore = true;
+                backoffMs = 250;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            deliver(receiver, notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Invalidation listener connection lost, reconnecting in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            } finally {
+                listenConnection = null;
+            }
+        }
+    }
+
+    private static void deliver(Receiver receiver, String payload) {
+        try {
+            receiver.onMessage(payload);
+        } catch (RuntimeException e) {
+            log.error("Failed to apply cache invalidation message", e);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Closing only to unblock the listener thread.
+        }
+    }
+}
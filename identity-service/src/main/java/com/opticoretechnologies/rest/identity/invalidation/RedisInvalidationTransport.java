@@ -0,0 +1,88 @@
+package com.opticoretechnologies.rest.identity.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transport on Redis pub/sub. The listener container re-subscribes by itself after a
+ * connection failure; this transport remembers the failure and asks for a full resync
+ * with the first message received afterwards, or at the latest on the next health check.
+ */
+@Slf4j
+public class RedisInvalidationTransport implements InvalidationTransport {
+    private final RedisConnectionFactory connectionFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final AtomicBoolean connectionLost = new AtomicBoolean();
+
+    private RedisMessageListenerContainer container;
+    private volatile Receiver receiver;
+
+    public RedisInvalidationTransport(RedisConnectionFactory connectionFactory, String channel) {
+        this.connectionFactory = connectionFactory;
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        this.channel = channel;
+    }
+
+    @Override
+    public int maxPayloadBytes() {
+        return 64 * 1024;
+    }
+
+    @Override
+    public void start(Receiver receiver) {
+        this.receiver = receiver;
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setErrorHandler(e -> {
+            if (connectionLost.compareAndSet(false, true)) {
+                log.warn("Redis invalidation subscription failed: {}", e.getMessage());
+            }
+        });
+        container.addMessageListener((message, pattern) -> {
+            resyncIfConnectionWasLost();
+            receiver.onMessage(new String(message.getBody(), StandardCharsets.UTF_8));
+        }, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @Override
+    public void publish(String payload) {
+        redisTemplate.convertAndSend(channel, payload);
+    }
+
+    @Override
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Override
+    public void checkConnection() {
+        if (!connectionLost.get()) {
+            return;
+        }
+        try (var connection = connectionFactory.getConnection()) {
+            connection.ping();
+            resyncIfConnectionWasLost();
+        } catch (Exception e) {
+            log.debug("Redis still unavailable: {}", e.getMessage());
+        }
+    }
+
+    private void resyncIfConnectionWasLost() {
+        Receiver target = receiver;
+        if (target != null && connectionLost.compareAndSet(true, false)) {
+            log.info("Redis invalidation subscription restored, resyncing caches");
+            target.onResync();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.opticoretechnologies.rest.identity.metrics;
+
+import com.opticoretechnologies.rest.identity.service.RefreshTokenOutcome;
+import com.opticoretechnologies.rest.identity.service.TokenVerification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for the authentication hot paths.
+ * <p>
+ * Every meter is registered once up front, so recording is a plain method call on a cached
+ * instance: callers take {@link System#nanoTime()} before the operation and pass the start
+ * to {@link #record(Timer, long)}. Timers publish percentile histograms; CPU-bound operations
+ * use microsecond buckets, database-bound ones millisecond buckets.
+ */
+@Component
+@Getter
+public class AuthMetrics {
+    private static final Duration CPU_MIN = Duration.ofNanos(500);
+    private static final Duration CPU_MAX = Duration.ofMillis(500);
+    private static final Duration IO_MIN = Duration.ofMillis(1);
+    private static final Duration IO_MAX = Duration.ofSeconds(10);
+
+    private final Timer jwtSign;
+    private final Timer jwtVerify;
+    private final Timer jwkLookup;
+    private final Timer jwkRotation;
+    private final Timer tokenHash;
+    private final Timer passwordEncode;
+    private final Timer passwordMatch;
+    private final Timer refreshCreate;
+    private final Timer refreshValidate;
+    private final Timer refreshRotate;
+    private final Timer refreshRevoke;
+    private final Timer filterAuthentication;
+    private final Timer referenceResolve;
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<TokenVerification.Outcome, Counter> verificationOutcomes = new EnumMap<>(TokenVerification.Outcome.class);
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<RefreshTokenOutcome, Counter> refreshOutcomes = new EnumMap<>(RefreshTokenOutcome.class);
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.jwtSign = cpuTimer(registry, "identity.jwt.sign", "Access token signing");
+        this.jwtVerify = cpuTimer(registry, "identity.jwt.verify", "Access token parsing and verification");
+        this.jwkLookup = cpuTimer(registry, "identity.jwk.lookup", "Verifier lookup by key ID");
+        this.jwkRotation = cpuTimer(registry, "identity.jwk.rotation", "Signing key rotation including key generation");
+        this.tokenHash = cpuTimer(registry, "identity.token.hash", "Refresh token hashing");
+        this.passwordEncode = ioTimer(registry, "identity.password.encode", "Password hashing");
+        this.passwordMatch = ioTimer(registry, "identity.password.match", "Password hash comparison");
+        this.refreshCreate = refreshTimer(registry, "create");
+        this.refreshValidate = refreshTimer(registry, "validate");
+        this.refreshRotate = refreshTimer(registry, "rotate");
+        this.refreshRevoke = refreshTimer(registry, "revoke");
+        this.filterAuthentication = ioTimer(registry, "identity.filter.authentication",
+                "Bearer token authentication in JwtAuthenticationFilter");
+        this.referenceResolve = cpuTimer(registry, "identity.reference_token.resolve",
+                "Reference token resolution, from the node-local cache or the database");
+
+        for (TokenVerification.Outcome outcome : TokenVerification.Outcome.values()) {
+            verificationOutcomes.put(outcome, Counter.builder("identity.jwt.verification")
+                    .description("Access token verifications by outcome")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(registry));
+        }
+        for (RefreshTokenOutcome outcome : RefreshTokenOutcome.values()) {
+            refreshOutcomes.put(outcome, Counter.builder("identity.refresh.validation")
+                    .description("Refresh token validations by outcome")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}, taken with {@link System#nanoTime()},
+     * and as a {@link ServerTiming} phase if the request is timed.
+     */
+    public static void record(Timer timer, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        ServerTiming.record(timer, elapsedNanos);
+    }
+
+    public void verificationOutcome(TokenVerification.Outcome outcome) {
+        verificationOutcomes.get(outcome).increment();
+    }
+
+    public void refreshOutcome(RefreshTokenOutcome outcome) {
+        refreshOutcomes.get(outcome).increment();
+    }
+
+    private static Timer cpuTimer(MeterRegistry registry, String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(CPU_MIN)
+                .maximumExpectedValue(CPU_MAX)
+                .register(registry);
+    }
+
+    private static Timer ioTimer(MeterRegistry registry, String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(IO_MIN)
+                .maximumExpectedValue(IO_MAX)
+                .register(registry);
+    }
+
+    private static Timer refreshTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("identity.refresh.operation")
+                .description("Refresh token operations including database access")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(IO_MIN)
+                .maximumExpectedValue(IO_MAX)
+                .register(registry);
+    }
+}
@@ -0,0 +1,123 @@
+package com.opticoretechnologies.rest.identity.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-request breakdown of where the time went, by phase, for the {@code Server-Timing} response
+ * header. Only requests that {@code ServerTimingFilter} enabled collect phases; for all others
+ * {@link #start()} and {@link #stop(String, long)} are a thread-local read and nothing else, so
+ * the instrumented code pays no clock reads and no allocations.
+ * <p>
+ * Every {@link AuthMetrics#record(Timer, long)} also records a phase, named after the timer, so
+ * the hot paths measured there show up without instrumenting them twice. A phase that runs more
+ * than once per request is summed.
+ */
+public final class ServerTiming {
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+    private static final Map<Meter.Id, String> PHASE_NAMES = new ConcurrentHashMap<>();
+    private static final int MAX_PHASES = 16;
+
+    private final String[] names = new String[MAX_PHASES];
+    private final long[] nanos = new long[MAX_PHASES];
+    private final int[] counts = new int[MAX_PHASES];
+    private int size;
+
+    /**
+     * Starts collecting phases on the current thread; {@link #end()} must follow.
+     */
+    public static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the start of a phase for {@link #stop(String, long)}, or 0 if this request is not timed
+     */
+    public static long start() {
+        return CURRENT.get() == null ? 0 : System.nanoTime();
+    }
+
+    public static void stop(String phase, long startNanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    static void record(Timer timer, long elapsedNanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(PHASE_NAMES.computeIfAbsent(timer.getId(), ServerTiming::phaseName), elapsedNanos);
+        }
+    }
+
+    /**
+     * The phases as a {@code Server-Timing} header value, durations in milliseconds.
+     */
+    public String toHeaderValue() {
+        StringBuilder header = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                header.append(", ");
+            }
+            header.append(names[i]).append(";dur=").append(millis(i));
+        }
+        return header.toString();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    public String millis(int index) {
+        return String.format(Locale.ROOT, "%.3f", nanos[index] / 1_000_000.0);
+    }
+
+    public int count(int index) {
+        return counts[index];
+    }
+
+    public void add(String phase, long elapsedNanos) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(phase)) {
+                nanos[i] += elapsedNanos;
+                counts[i]++;
+                return;
+            }
+        }
+        if (size < MAX_PHASES) {
+            names[size] = phase;
+            nanos[size] = elapsedNanos;
+            counts[size] = 1;
+            size++;
+        }
+    }
+
+    /**
+     * {@code identity.jwt.sign} becomes {@code jwt_sign}; an {@code operation} tag replaces the
+     * last name segment, so {@code identity.refresh.operation} tagged {@code operation=create}
+     * becomes {@code refresh_create}.
+     */
+    private static String phaseName(Meter.Id id) {
+        String name = id.getName().startsWith("identity.") ? id.getName().substring("identity.".length()) : id.getName();
+        String operation = id.getTag("operation");
+        if (operation != null && name.lastIndexOf('.') > 0) {
+            name = name.substring(0, name.lastIndexOf('.') + 1) + operation;
+        }
+        return name.replace('.', '_');
+    }
+}
@@ -0,0 +1,39 @@
+package com.opticoretechnologies.rest.identity.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Records encode and match latency of the wrapped encoder. Both are deliberately slow,
+ * so they are the first thing to look at when login latency moves.
+ */
+@RequiredArgsConstructor
+public class TimedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final AuthMetrics authMetrics;
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            AuthMetrics.record(authMetrics.getPasswordEncode(), start);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            AuthMetrics.record(authMetrics.getPasswordMatch(), start);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,38 @@
+package com.opticoretechnologies.rest.identity.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps delivered events in memory, for tests. Can be told to reject batches to exercise the
+ * relay's retries.
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+    private final List<OutboxEvent> events = new ArrayList<>();
+    private int failuresLeft;
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        if (failuresLeft > 0) {
+            failuresLeft--;
+            throw new IllegalStateException("Sink unavailable");
+        }
+        events.addAll(batch);
+    }
+
+    public synchronized List<OutboxEvent> events() {
+        return List.copyOf(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+        failuresLeft = 0;
+    }
+
+    /**
+     * Rejects the next {@code batches} batches.
+     */
+    public synchronized void failNext(int batches) {
+        failuresLeft = batches;
+    }
+}
@@ -0,0 +1,24 @@
+package com.opticoretechnologies.rest.identity.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Logs every event at INFO. The default sink until a broker is wired in. Payloads carry
+ * personal data such as emails, so only the event's type and aggregate are logged.
+ */
+@Slf4j
+public class LoggingOutboxSink implements OutboxSink {
+
+    @Override
+    public void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            log.atInfo()
+                    .addKeyValue("eventId", event.id())
+                    .addKeyValue("eventType", event.type())
+                    .addKeyValue("aggregateId", event.aggregateId())
+                    .log("Outbox event {} {}", event.type(), event.aggregateId());
+        }
+    }
+}
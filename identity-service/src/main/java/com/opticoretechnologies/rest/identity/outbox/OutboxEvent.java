@@ -0,0 +1,15 @@
+package com.opticoretechnologies.rest.identity.outbox;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An event as handed to an {@link OutboxSink}.
+ *
+ * @param id       unique and, per writing node, increasing; consumers deduplicate on it
+ * @param payload  JSON object
+ * @param attempts earlier deliveries of this event that failed
+ */
+public record OutboxEvent(long id, OutboxEventType type, UUID aggregateId, String payload, Instant createdAt,
+                          int attempts) {
+}
@@ -0,0 +1,12 @@
+package com.opticoretechnologies.rest.identity.outbox;
+
+/**
+ * User lifecycle events published to downstream systems. The aggregate of every event is the
+ * user.
+ */
+public enum OutboxEventType {
+    USER_REGISTERED,
+    USERNAME_CHANGED,
+    PASSWORD_CHANGED,
+    SESSION_REVOKED
+}
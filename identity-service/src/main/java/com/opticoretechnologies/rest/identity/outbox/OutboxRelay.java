@@ -0,0 +1,250 @@
+package com.opticoretechnologies.rest.identity.outbox;
+
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains the transactional outbox into the {@link OutboxSink}.
+ * <p>
+ * A single background thread claims up to {@code batch-size} due events with
+ * {@code FOR UPDATE SKIP LOCKED}, hands them to the sink and deletes them, all in one
+ * transaction. Relays on other nodes skip the claimed rows instead of waiting for them, so
+ * every node can run one. A full batch is followed by the next one at once; otherwise the
+ * relay sleeps for {@code poll-interval-ms} or until a transaction that recorded events
+ * commits on this node.
+ * <p>
+ * A batch the sink rejects stays in the table, postponed by {@code retry-backoff-ms} doubled
+ * per earlier attempt and capped at {@code max-backoff-ms}; events are never dropped. Delivery
+ * is at least once and ordered by id within a batch, but a postponed event can be overtaken,
+ * so consumers that care about order compare ids per user.
+ * <p>
+ * Meters: {@code identity.outbox.published}, {@code identity.outbox.publish.failed},
+ * {@code identity.outbox.lag} (commit to delivery) and {@code identity.outbox.batch.relay}.
+ */
+@Component
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+    static final String SELECT_DUE_SQL = "SELECT id, event_type, aggregate_id, payload, created_at, attempts FROM _outbox_events "
+            + "WHERE available_at <= ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    static final String DELETE_SQL = "DELETE FROM _outbox_events WHERE id = ?";
+    static final String POSTPONE_SQL = "UPDATE _outbox_events SET attempts = attempts + 1, available_at = ? WHERE id = ?";
+    private static final int MAX_BACKOFF_DOUBLINGS = 20;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long pollIntervalNanos;
+    private final long retryBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Counter published;
+    private final Counter publishFailed;
+    private final Timer lag;
+    private final Timer batchRelay;
+
+    private volatile Thread relay;
+    private volatile boolean running;
+
+    @Autowired
+    public OutboxRelay(DataSource dataSource, PlatformTransactionManager transactionManager, OutboxSink sink,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${app.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${app.outbox.relay.poll-interval-ms:1000}") long pollIntervalMs,
+                       @Value("${app.outbox.relay.retry-backoff-ms:1000}") long retryBackoffMs,
+                       @Value("${app.outbox.relay.max-backoff-ms:300000}") long maxBackoffMs) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sink = sink;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pollIntervalMs);
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        this.published = Counter.builder("identity.outbox.published")
+                .description("Outbox events accepted by the sink")
+                .register(meterRegistry);
+        this.publishFailed = Counter.builder("identity.outbox.publish.failed")
+                .description("Outbox events postponed because the sink rejected their batch")
+                .register(meterRegistry);
+        this.lag = Timer.builder("identity.outbox.lag")
+                .description("Time from recording an outbox event to its delivery")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(meterRegistry);
+        this.batchRelay = Timer.builder("identity.outbox.batch.relay")
+                .description("Outbox batches claimed, published and deleted")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wakes the relay if it is sleeping; a no-op while it works through a backlog.
+     */
+    public void wakeUp() {
+        Thread current = relay;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    /**
+     * Relays batches until no event is due or a batch was rejected.
+     *
+     * @return the number of events delivered
+     */
+    public int drain() {
+        int total = 0;
+        int relayed;
+        do {
+            relayed = relayBatch();
+            total += relayed;
+        } while (relayed == batchSize);
+        return total;
+    }
+
+    /**
+     * Claims, publishes and deletes one batch of due events.
+     *
+     * @return the number of events delivered; 0 if none was due or the sink rejected the batch
+     */
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            long start = System.nanoTime();
+            Instant now = Instant.now();
+            List<OutboxEvent> batch = jdbcTemplate.query(SELECT_DUE_SQL, OutboxRelay::mapEvent,
+                    OffsetDateTime.ofInstant(now, ZoneOffset.UTC), batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                sink.publish(batch);
+            } catch (Exception e) {
+                postpone(batch, now);
+                publishFailed.increment(batch.size());
+                log.warn("Outbox sink rejected {} events, retrying later: {}", batch.size(), e.toString());
+                return 0;
+            }
+            jdbcTemplate.batchUpdate(DELETE_SQL, batch, batch.size(), (ps, event) -> ps.setLong(1, event.id()));
+            published.increment(batch.size());
+            Instant deliveredAt = Instant.now();
+            for (OutboxEvent event : batch) {
+                lag.record(Duration.between(event.createdAt(), deliveredAt));
+            }
+            AuthMetrics.record(batchRelay, start);
+            return batch.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    private void postpone(List<OutboxEvent> batch, Instant now) {
+        jdbcTemplate.batchUpdate(POSTPONE_SQL, batch, batch.size(), (ps, event) -> {
+            ps.setObject(1, OffsetDateTime.ofInstant(now.plusMillis(backoffMs(event.attempts())), ZoneOffset.UTC));
+            ps.setLong(2, event.id());
+        });
+    }
+
+    long backoffMs(int earlierAttempts) {
+        long backoff = retryBackoffMs << Math.min(earlierAttempts, MAX_BACKOFF_DOUBLINGS);
+        return Math.min(backoff, maxBackoffMs);
+    }
+
+    private static OutboxEvent mapEvent(ResultSet rs, int rowNum) throws SQLException {
+        return new OutboxEvent(
+                rs.getLong("id"),
+                OutboxEventType.valueOf(rs.getString("event_type")),
+                rs.getObject("aggregate_id", UUID.class),
+                rs.getString("payload"),
+                rs.getObject("created_at", OffsetDateTime.class).toInstant(),
+                rs.getInt("attempts"));
+    }
+
+    private void runRelay() {
+        while (running) {
+            int relayed;
+            try {
+                relayed = relayBatch();
+            } catch (RuntimeException e) {
+                log.warn("Outbox relay failed, retrying in the next poll: {}", e.getMessage());
+                relayed = 0;
+            }
+            if (relayed < batchSize && running) {
+                LockSupport.parkNanos(this, pollIntervalNanos);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        relay = Thread.ofPlatform().name("outbox-relay").daemon().start(this::runRelay);
+    }
+
+    /**
+     * Lets the batch in flight finish; undelivered events simply wait in the table for the
+     * next start or another node.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = relay;
+        if (current == null) {
+            return;
+        }
+        LockSupport.unpark(current);
+        try {
+            current.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            log.warn("Outbox relay did not finish its batch within {} ms", SHUTDOWN_TIMEOUT_MS);
+        }
+        relay = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Same phase as the audit writer: starts before and stops after the web server.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
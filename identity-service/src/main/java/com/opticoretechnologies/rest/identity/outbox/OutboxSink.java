@@ -0,0 +1,18 @@
+package com.opticoretechnologies.rest.identity.outbox;
+
+import java.util.List;
+
+/**
+ * Where the {@link OutboxRelay} delivers events, e.g. a message broker.
+ * <p>
+ * Delivery is at least once: a batch is deleted from the outbox only after
+ * {@link #publish(List)} returned, so a crash in between delivers it again. A batch is either
+ * accepted as a whole or, by throwing, retried as a whole later.
+ */
+public interface OutboxSink {
+
+    /**
+     * Called from the relay thread only, with events in id order.
+     */
+    void publish(List<OutboxEvent> batch) throws Exception;
+}
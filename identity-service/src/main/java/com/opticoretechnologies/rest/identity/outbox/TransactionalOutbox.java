@@ -0,0 +1,63 @@
+package com.opticoretechnologies.rest.identity.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records user lifecycle events for downstream systems.
+ * <p>
+ * An event is one INSERT in the caller's transaction, so it is published exactly when the
+ * change it describes commits, and the request never waits for a downstream system. The
+ * {@link OutboxRelay} delivers it in the background; committing wakes the relay, so delivery
+ * does not wait for its next poll either.
+ */
+@Component
+public class TransactionalOutbox {
+    static final String INSERT_SQL = "INSERT INTO _outbox_events (event_type, aggregate_id, payload, created_at, available_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    // Registered once per transaction however many events it records; the set of synchronizations deduplicates it.
+    private final TransactionSynchronization wakeRelay;
+
+    public TransactionalOutbox(DataSource dataSource, ObjectMapper objectMapper, OutboxRelay relay) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.wakeRelay = new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                relay.wakeUp();
+            }
+        };
+    }
+
+    /**
+     * @param payload serialized as a JSON object; values must not be null
+     * @throws org.springframework.transaction.IllegalTransactionStateException if called outside a transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, UUID aggregateId, Map<String, ?> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload of " + type + " is not serializable", e);
+        }
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        jdbcTemplate.update(INSERT_SQL, type.name(), aggregateId, json, now, now);
+        TransactionSynchronizationManager.registerSynchronization(wakeRelay);
+    }
+}
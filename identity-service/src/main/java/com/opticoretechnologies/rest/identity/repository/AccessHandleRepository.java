@@ -0,0 +1,32 @@
+package com.opticoretechnologies.rest.identity.repository;
+
+import com.opticoretechnologies.rest.identity.entity.AccessHandle;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AccessHandleRepository extends JpaRepository<AccessHandle, UUID> {
+
+    /**
+     * Finds a handle by its hash, with the user in the same statement: the caller needs the
+     * username to load the principal.
+     */
+    @EntityGraph(attributePaths = "user")
+    Optional<AccessHandle> findByHandle(String handle);
+
+    @Modifying
+    @Query("update AccessHandle h set h.revoked = true where h.handle = :handle and h.revoked = false")
+    int revokeByHandle(@Param("handle") String handle);
+
+    @Modifying
+    @Query("delete from AccessHandle h where h.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,75 @@
+package com.opticoretechnologies.rest.identity.repository;
+
+import com.opticoretechnologies.rest.identity.entity.RefreshToken;
+import com.opticoretechnologies.rest.identity.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
+
+    /**
+     * Finds a RefreshToken by its token string.
+     * The user and its roles are fetched in the same statement: every caller issues an access
+     * token for that user right after, which would otherwise cost two more lazy loads.
+     *
+     * @param token the token string to search for
+     * @return an Optional containing the RefreshToken if found, or empty if not found
+     */
+    @EntityGraph(attributePaths = {"user", "user.roles"})
+    Optional<RefreshToken> findByToken(String token);
+
+    /**
+     * Deletes a RefreshToken by its token string.
+     *
+     * @param token the token string to delete
+     */
+    void deleteByToken(String token);
+
+    void deleteRevokedTokensByUserId(UUID userId);
+
+    void deleteExpiredTokensByUserId(UUID userId);
+
+    void deleteAllByUserId(UUID userId);
+
+    void deleteByUser(User user);
+
+    /**
+     * Active (unrevoked, unexpired) sessions of a user, newest first.
+     * Served by the partial {@code (user_id, issued_at desc) where revoked = false} index.
+     */
+    @Query("select t from RefreshToken t where t.user.id = :userId and t.revoked = false and t.expiryDate > :now "
+            + "order by t.issuedAt desc")
+    List<RefreshToken> findActiveByUserId(@Param("userId") UUID userId, @Param("now") Instant now);
+
+    /**
+     * As {@link #findActiveByUserId(UUID, Instant)}, for callers that only know the username.
+     */
+    @Query("select t from RefreshToken t where t.user.username = :username and t.revoked = false and t.expiryDate > :now "
+            + "order by t.issuedAt desc")
+    List<RefreshToken> findActiveByUsername(@Param("username") String username, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.id in :ids")
+    int revokeAllById(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Revokes the token unless it already is, so of several rotations or logouts racing for the
+     * same token exactly one sees 1.
+     *
+     * @return 1 if this call revoked the token, 0 if it was revoked before
+     */
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.id = :id and t.revoked = false")
+    int revokeIfActive(@Param("id") UUID id);
+}
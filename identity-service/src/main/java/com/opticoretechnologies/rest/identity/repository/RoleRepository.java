@@ -1,12 +1,19 @@
 package com.opticoretechnologies.rest.identity.repository;
 
 import com.opticoretechnologies.rest.identity.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.UUID;
 
 public interface RoleRepository extends JpaRepository<Role, UUID> {
     boolean existsByName(String name);
 
+    /**
+     * Cached in the query cache; the result ids resolve against the read-only Role region.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     java.util.Optional<Role> findByName(String name);
 }
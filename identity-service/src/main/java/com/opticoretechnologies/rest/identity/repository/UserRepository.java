@@ -0,0 +1,66 @@
+package com.opticoretechnologies.rest.identity.repository;
+
+import com.opticoretechnologies.rest.identity.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+
+@Repository
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
+
+    // Custom query methods can be defined here if needed
+    // For example:
+    // Optional<User> findByUsername(String username);
+    Optional<User> findByEmail(String email);
+
+    Optional<User> findByUsername(String username);
+
+    String findPasswordHashByUsername(String username);
+
+    /**
+     * The user and its roles in one statement. The join walks {@code user_roles} through the
+     * {@code (user_id, role_id)} index.
+     */
+    @Query("SELECT u FROM User u JOIN FETCH u.roles WHERE u.username = :username")
+    Optional<User> findByUsernameWithRoles(String username);
+
+    boolean existsByEmail(String email);
+
+    boolean existsByUsername(String username);
+
+    /**
+     * Username and email of every user, fetched in chunks without loading entities. The stream
+     * must be consumed and closed inside a transaction.
+     */
+    @Query("SELECT u.username AS username, u.email AS email FROM User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Identifiers> streamAllIdentifiers();
+
+    interface Identifiers {
+        String getUsername();
+
+        String getEmail();
+    }
+
+    /**
+     * Activity timestamps straight from the table. Activity flushes do not evict cached users,
+     * so the copies on a cached entity can be older.
+     */
+    @Query("SELECT u.lastLoginAt AS lastLoginAt, u.lastSeenAt AS lastSeenAt FROM User u WHERE u.id = :id")
+    Optional<Activity> findActivityById(UUID id);
+
+    interface Activity {
+        Instant getLastLoginAt();
+
+        Instant getLastSeenAt();
+    }
+}
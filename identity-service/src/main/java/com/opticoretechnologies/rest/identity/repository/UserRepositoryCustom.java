@@ -0,0 +1,17 @@
+package com.opticoretechnologies.rest.identity.repository;
+
+import com.opticoretechnologies.rest.identity.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Loads a user through its username natural id, with the roles collection initialized.
+     * Resolved from the second-level cache when warm, so no SQL is issued.
+     *
+     * @param username the username to look up
+     * @return an Optional containing the User if found, or empty if not found
+     */
+    Optional<User> findByNaturalUsername(String username);
+}
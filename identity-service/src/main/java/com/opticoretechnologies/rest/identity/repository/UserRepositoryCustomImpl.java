@@ -0,0 +1,24 @@
+package com.opticoretechnologies.rest.identity.repository;
+
+import com.opticoretechnologies.rest.identity.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByNaturalUsername(String username) {
+        Optional<User> user = entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+        user.ifPresent(u -> Hibernate.initialize(u.getRoles()));
+        return user;
+    }
+}
@@ -0,0 +1,30 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * The kinds of access token this service issues. Clients pick one at login; the session keeps
+ * it across refreshes.
+ */
+public enum AccessTokenFormat {
+    /** A signed JWT that any holder of the published keys verifies locally. */
+    JWT,
+    /**
+     * An opaque handle only this service can resolve, so revoking it takes effect on the next
+     * request instead of at expiry. See {@link ReferenceTokenService}.
+     */
+    REFERENCE;
+
+    /**
+     * @throws BadRequestException if {@code value} names no format
+     */
+    public static AccessTokenFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown token format '" + value + "'; use 'jwt' or 'reference'.");
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.audit.AuthAuditEventType;
+import com.opticoretechnologies.rest.identity.audit.AuthAuditLog;
+import com.opticoretechnologies.rest.identity.breach.BreachedPasswordFilter;
+import com.opticoretechnologies.rest.identity.config.ReadYourWritesTracker;
+import com.opticoretechnologies.rest.identity.dto.AuthResponse;
+import com.opticoretechnologies.rest.identity.dto.LoginRequest;
+import com.opticoretechnologies.rest.identity.dto.RegisterRequest;
+import com.opticoretechnologies.rest.identity.dto.UserInfo;
+import com.opticoretechnologies.rest.identity.entity.Role;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.exception.AccountUnavailableException;
+import com.opticoretechnologies.rest.identity.exception.DuplicateResourceException;
+import com.opticoretechnologies.rest.identity.exception.InvalidCredentialsException;
+import com.opticoretechnologies.rest.identity.exception.TokenException;
+import com.opticoretechnologies.rest.identity.invalidation.CacheInvalidationBus;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationType;
+import com.opticoretechnologies.rest.identity.metrics.ServerTiming;
+import com.opticoretechnologies.rest.identity.outbox.OutboxEventType;
+import com.opticoretechnologies.rest.identity.outbox.TransactionalOutbox;
+import com.opticoretechnologies.rest.identity.repository.RoleRepository;
+import com.opticoretechnologies.rest.identity.repository.UserRepository;
+import com.opticoretechnologies.rest.identity.utils.CookieUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.management.relation.RoleNotFoundException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthService {
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final AuthenticationManager authenticationManager;
+    private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final CookieUtils cookieUtils;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AuthAuditLog authAuditLog;
+    private final UserActivityTracker userActivityTracker;
+    private final TokenHashingService tokenHashingService;
+    private final RefreshCoalescer refreshCoalescer;
+    private final BreachedPasswordFilter breachedPasswordFilter;
+    private final AvailabilityService availabilityService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final ReferenceTokenService referenceTokenService;
+    private final TransactionalOutbox outbox;
+    @Value("${app.security.reference-tokens.default-format:jwt}")
+    private String defaultTokenFormat;
+
+    @Transactional
+    public void register(RegisterRequest request) throws DuplicateResourceException {
+        breachedPasswordFilter.check(request.getPassword());
+        if (userRepository.existsByUsername(request.getUsername())) {
+            throw new DuplicateResourceException("Username is already taken!");
+        }
+        if (userRepository.existsByEmail(request.getEmail())) {
+            throw new DuplicateResourceException("Email is already in use!");
+        }
+        Role userRole = null;
+        try {
+            userRole = roleRepository.findByName("ROLE_USER").orElseThrow(() -> new RoleNotFoundException("Role USER not found. Please initialize roles."));
+        } catch (RoleNotFoundException e) {
+            userRole = roleRepository.save(Role.builder().name("ROLE_USER").description("Default user role").build());
+        }
+        User user = User.builder().username(request.getUsername()).email(request.getEmail()).password(passwordEncoder.encode(request.getPassword())).roles(Set.of(userRole)).enabled(true).accountNonLocked(true).build();
+        userRepository.save(user);
+        readYourWritesTracker.recordWrite(ReadYourWritesTracker.userKey(user.getUsername()));
+        availabilityService.recordTaken(user.getUsername(), user.getEmail());
+        cacheInvalidationBus.publish(InvalidationType.USERNAME_TAKEN, user.getUsername());
+        cacheInvalidationBus.publish(InvalidationType.EMAIL_TAKEN, user.getEmail());
+        outbox.record(OutboxEventType.USER_REGISTERED, user.getId(),
+                Map.of("username", user.getUsername(), "email", user.getEmail()));
+    }
+
+
+    public AuthResponse login(LoginRequest request, String deviceInfo, HttpServletRequest httpServletRequest) {
+
+        if (request == null || request.getUsername() == null || request.getPassword() == null) {
+            throw new IllegalArgumentException("Username and password must be provided.");
+        }
+        AccessTokenFormat requestedFormat = request.getTokenFormat() == null ? null : AccessTokenFormat.parse(request.getTokenFormat());
+
+        // Check for existing refresh token in cookies
+        String existingRefreshToken = cookieUtils.getRefreshTokenFromCookie(httpServletRequest);
+        if (existingRefreshToken != null) {
+            // Validate the existing refresh token
+            var refreshToken = refreshTokenService.validateRefreshToken(existingRefreshToken);
+            if (refreshToken.isPresent() && requestedFormat != null) {
+                refreshToken.get().setReferenceAccess(requestedFormat == AccessTokenFormat.REFERENCE);
+            }
+            // Empty if the token was rotated or revoked since it was read; the password login below applies then.
+            Optional<String> newRefreshToken = refreshToken.flatMap(refreshTokenService::rotateRefreshToken);
+            if (newRefreshToken.isPresent()) {
+                log.debug("Valid refresh token presented on login, rotated it for user: {}", refreshToken.get().getUser().getUsername());
+                String accessToken = issueAccessToken(refreshToken.get().getUser(), refreshToken.get().isReferenceAccess());
+                authAuditLog.record(AuthAuditEventType.LOGIN_SUCCESS, refreshToken.get().getUser(), deviceInfo);
+                userActivityTracker.recordLogin(refreshToken.get().getUser().getId());
+                return AuthResponse.builder()
+                        .accessToken(accessToken)
+                        .userInfo(UserInfo.builder()
+                                .username(refreshToken.get().getUser().getUsername())
+                                .email(refreshToken.get().getUser().getEmail())
+                                .build())
+                        .tokenType(newRefreshToken.get())
+                        .build();
+            }
+        }
+
+        // Normal login process when no valid refresh token exists
+        Authentication authentication;
+        long authenticateStart = ServerTiming.start();
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+            );
+        } catch (AuthenticationException ex) {
+            authAuditLog.record(AuthAuditEventType.LOGIN_FAILURE, null, request.getUsername(), deviceInfo);
+            throw new InvalidCredentialsException("Invalid username or password.");
+        } finally {
+            // User lookup plus password match; both also show up as phases of their own.
+            ServerTiming.stop("authenticate", authenticateStart);
+        }
+
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new InvalidCredentialsException("Invalid username or password.");
+        }
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        Object principal = authentication.getPrincipal();
+        if (!(principal instanceof User userDetails)) {
+            throw new IllegalStateException("Authenticated principal is not of type User.");
+        }
+
+        if (!userDetails.isEnabled()) {
+            throw new AccountUnavailableException("User account is disabled.");
+        }
+        if (!userDetails.isAccountNonLocked()) {
+            throw new AccountUnavailableException("User account is locked.");
+        }
+
+        boolean referenceAccess = (requestedFormat != null ? requestedFormat
+                : AccessTokenFormat.parse(defaultTokenFormat)) == AccessTokenFormat.REFERENCE;
+        String accessToken;
+        try {
+            accessToken = issueAccessToken(userDetails, referenceAccess);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to generate access token.", ex);
+        }
+
+        String rawRefreshToken;
+        try {
+            rawRefreshToken = refreshTokenService.createRefreshToken(userDetails, deviceInfo, referenceAccess);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to create refresh token.", ex);
+        }
+        authAuditLog.record(AuthAuditEventType.LOGIN_SUCCESS, userDetails, deviceInfo);
+        userActivityTracker.recordLogin(userDetails.getId());
+
+        return AuthResponse.builder()
+                .accessToken(accessToken)
+                .userInfo(UserInfo.builder()
+                        .username(userDetails.getUsername())
+                        .email(userDetails.getEmail())
+                        .build())
+                .tokenType(rawRefreshToken)
+                .build();
+    }
+
+    /**
+     * Rotates the refresh token and issues a new access token. Concurrent and closely repeated
+     * refreshes with the same token share one rotation through {@link RefreshCoalescer}.
+     * As with {@link #login}, the new raw refresh token is returned in {@code tokenType} for the
+     * controller to put into the cookie.
+     *
+     * @throws TokenException if the refresh token is unknown, revoked or expired
+     */
+    public AuthResponse refresh(String rawRefreshToken, String deviceInfo) {
+        RefreshCoalescer.Rotation rotation = refreshCoalescer.rotate(tokenHashingService.hashToken(rawRefreshToken),
+                () -> rotate(rawRefreshToken, deviceInfo));
+        return AuthResponse.builder()
+                .accessToken(rotation.accessToken())
+                .tokenType(rotation.rawRefreshToken())
+                .build();
+    }
+
+    private String issueAccessToken(User user, boolean referenceAccess) {
+        return referenceAccess ? referenceTokenService.issue(user) : jwtService.generateToken(user);
+    }
+
+    private RefreshCoalescer.Rotation rotate(String rawRefreshToken, String deviceInfo) {
+        // The old token is claimed before the access token is issued, so a replayed token gets neither.
+        return refreshTokenService.validateRefreshToken(rawRefreshToken)
+                .flatMap(refreshToken -> refreshTokenService.rotateRefreshToken(refreshToken).map(newRawRefreshToken -> {
+                    User user = refreshToken.getUser();
+                    String accessToken = issueAccessToken(user, refreshToken.isReferenceAccess());
+                    authAuditLog.record(AuthAuditEventType.REFRESH_SUCCESS, user, deviceInfo);
+                    userActivityTracker.recordSeen(user.getId());
+                    return new RefreshCoalescer.Rotation(accessToken, newRawRefreshToken);
+                }))
+                .orElseThrow(() -> {
+                    authAuditLog.record(AuthAuditEventType.REFRESH_FAILURE, null, null, deviceInfo);
+                    return new TokenException("Refresh token is invalid or expired!");
+                });
+    }
+}
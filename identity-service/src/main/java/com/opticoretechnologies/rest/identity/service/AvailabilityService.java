@@ -0,0 +1,167 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationEvent;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationListener;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationType;
+import com.opticoretechnologies.rest.identity.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Answers "is this username / email still free?" for signup forms, which ask on every keystroke.
+ * <p>
+ * Node-local Bloom filters hold the normalized (trimmed, lower-cased) username and email of every
+ * user. A name the filter has never seen is free without asking the database; only a "maybe
+ * present" falls through to {@code existsByUsername}/{@code existsByEmail}, which decide
+ * exactly. Since most checks are for free names, nearly all of them stay off the database.
+ * <p>
+ * The filters are filled on a background thread when the context starts, by streaming all users
+ * through {@link UserRepository#streamAllIdentifiers()}; until then every check goes to the
+ * database. Registrations and renames on this node are added directly, those on other nodes
+ * through {@link InvalidationType#USERNAME_TAKEN} and {@link InvalidationType#EMAIL_TAKEN} events,
+ * which carry the name itself, and a resync streams all users again. Names given up by a rename stay in the filter and just
+ * cost a database check.
+ */
+@Service
+@Slf4j
+public class AvailabilityService implements InvalidationListener, SmartLifecycle {
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedUsers;
+    private final double fpp;
+    private final Counter answeredByFilter;
+    private final Counter answeredByDatabase;
+    private volatile ConcurrentBloomFilter usernames;
+    private volatile ConcurrentBloomFilter emails;
+    private volatile boolean ready;
+    private volatile boolean running;
+
+    public AvailabilityService(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.security.availability.expected-users:1000000}") long expectedUsers,
+                               @Value("${app.security.availability.fpp:0.01}") double fpp) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedUsers = expectedUsers;
+        this.fpp = fpp;
+        this.answeredByFilter = checkCounter(meterRegistry, "filter");
+        this.answeredByDatabase = checkCounter(meterRegistry, "database");
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        return isAvailable(usernames, username, userRepository::existsByUsername);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        return isAvailable(emails, email, userRepository::existsByEmail);
+    }
+
+    /**
+     * Marks the user's username and email as taken on this node. Called for registrations and
+     * renames before their transaction commits, since a name that ends up not taken only costs
+     * a database check.
+     */
+    public void recordTaken(String username, String email) {
+        ConcurrentBloomFilter usernameFilter = usernames;
+        ConcurrentBloomFilter emailFilter = emails;
+        if (usernameFilter != null && username != null) {
+            usernameFilter.add(normalize(username));
+        }
+        if (emailFilter != null && email != null) {
+            emailFilter.add(normalize(email));
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private boolean isAvailable(ConcurrentBloomFilter filter, String value, Predicate<String> exists) {
+        if (ready && !filter.mightContain(normalize(value))) {
+            answeredByFilter.increment();
+            return true;
+        }
+        answeredByDatabase.increment();
+        return !exists.test(value);
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        long count = readOnlyTransaction.execute(status -> {
+            try (Stream<UserRepository.Identifiers> identifiers = userRepository.streamAllIdentifiers()) {
+                return identifiers.peek(user -> recordTaken(user.getUsername(), user.getEmail())).count();
+            }
+        });
+        ready = true;
+        log.info("Loaded {} users into the availability filters in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void loadInBackground() {
+        Thread.ofVirtual().name("availability-filter-loader").start(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                log.warn("Could not load the availability filters, checks go to the database: {}", e.toString());
+            }
+        });
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.type() == InvalidationType.USERNAME_TAKEN) {
+            recordTaken(event.key(), null);
+        } else if (event.type() == InvalidationType.EMAIL_TAKEN) {
+            recordTaken(null, event.key());
+        }
+    }
+
+    @Override
+    public void onResync() {
+        loadInBackground();
+    }
+
+    @Override
+    public void start() {
+        usernames = new ConcurrentBloomFilter(expectedUsers, fpp);
+        emails = new ConcurrentBloomFilter(expectedUsers, fpp);
+        running = true;
+        loadInBackground();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String answeredBy) {
+        return Counter.builder("identity.availability.checks")
+                .description("Username and email availability checks, by what answered them")
+                .tag("answered_by", answeredBy)
+                .register(meterRegistry);
+    }
+}
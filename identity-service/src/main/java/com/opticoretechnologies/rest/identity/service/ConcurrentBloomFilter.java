@@ -0,0 +1,68 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import org.apache.commons.codec.digest.MurmurHash3;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * On-heap Bloom filter over strings that can be added to and queried concurrently without
+ * locks. Bit positions come from the two halves of a 128-bit Murmur3 hash by double hashing.
+ * Entries cannot be removed; a filter that has seen many more entries than it was sized for
+ * answers "maybe" more often, which costs lookups but never correctness.
+ */
+class ConcurrentBloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedEntries entries at which the false positive rate reaches {@code fpp}
+     */
+    ConcurrentBloomFilter(long expectedEntries, double fpp) {
+        long expected = Math.max(1, expectedEntries);
+        long bits = Math.max(Long.SIZE, (long) Math.ceil(-expected * Math.log(fpp) / (LN2 * LN2)));
+        long wordCount = (bits + Long.SIZE - 1) / Long.SIZE;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter for " + expectedEntries + " entries at " + fpp + " is too large");
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.bitCount = wordCount * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * LN2));
+    }
+
+    void add(String value) {
+        long[] hash = hash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash[0] + i * hash[1], bitCount);
+            long mask = 1L << bit;
+            int index = (int) (bit >>> 6);
+            if ((words.get(index) & mask) == 0) {
+                words.getAndAccumulate(index, mask, (word, m) -> word | m);
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long[] hash = hash(value);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash[0] + i * hash[1], bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long bitCount() {
+        return bitCount;
+    }
+
+    private static long[] hash(String value) {
+        long[] hash = MurmurHash3.hash128x64(value.getBytes(StandardCharsets.UTF_8));
+        hash[1] |= 1;
+        return hash;
+    }
+}
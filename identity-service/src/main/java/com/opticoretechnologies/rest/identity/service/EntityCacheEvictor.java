@@ -0,0 +1,89 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.entity.Role;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationEvent;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationListener;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Explicit eviction hooks for the Hibernate second-level cache.
+ * <p>
+ * Hibernate keeps the regions in step with entity updates made through this node's
+ * EntityManager; these hooks cover everything else (bulk statements, changes made on
+ * other nodes) and evict only after commit so a concurrent reader cannot re-cache the
+ * pre-commit state. Changes made on other nodes arrive through the cache invalidation bus.
+ */
+@Component
+@Slf4j
+public class EntityCacheEvictor implements InvalidationListener {
+    private static final String USER_ROLES_REGION = User.class.getName() + ".roles";
+
+    private final Cache cache;
+
+    public EntityCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Evicts the user's entity and roles collection once the current transaction commits.
+     * When the username changed, the natural-id region is cleared as well.
+     */
+    public void evictUserAfterCommit(UUID userId, boolean usernameChanged) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictUser(userId, usernameChanged);
+                }
+            });
+        } else {
+            evictUser(userId, usernameChanged);
+        }
+    }
+
+    public void evictUser(UUID userId, boolean usernameChanged) {
+        cache.evictEntityData(User.class, userId);
+        cache.evictCollectionData(USER_ROLES_REGION, userId);
+        if (usernameChanged) {
+            cache.evictNaturalIdData(User.class);
+        }
+        log.debug("Evicted cached user {}", userId);
+    }
+
+    public void evictAllUsers() {
+        cache.evictEntityData(User.class);
+        cache.evictCollectionData(USER_ROLES_REGION);
+        cache.evictNaturalIdData(User.class);
+    }
+
+    public void evictAllRoles() {
+        cache.evictEntityData(Role.class);
+        cache.evictQueryRegions();
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        switch (event.type()) {
+            case USER -> evictUser(UUID.fromString(event.key()), false);
+            case USER_RENAMED -> evictUser(UUID.fromString(event.key()), true);
+            case ROLE -> evictAllRoles();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        evictAllUsers();
+        evictAllRoles();
+    }
+}
@@ -0,0 +1,203 @@
+package com.opticoretechnologies.rest.identity.service;
+
+
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the RSA keys used to sign and verify access tokens.
+ * <p>
+ * Readers never lock: the keys, the published JWK set, the active signer and one verifier
+ * per key ID live in an immutable {@link KeyRing} that rotation replaces atomically. Only
+ * rotations serialize among themselves, on a {@link ReentrantLock} so a virtual thread
+ * waiting for it does not pin its carrier.
+ * <p>
+ * The initial key is generated on a background thread started by the constructor, so RSA key
+ * generation overlaps with the rest of context startup instead of delaying it. The first caller
+ * that needs a key before it is ready waits for it; after that the ring is a plain volatile read.
+ */
+@Component
+@EnableScheduling
+@Slf4j
+
+public class JwkService {
+    private final ReentrantLock rotationLock = new ReentrantLock();
+    private volatile KeyRing keyRing;
+    private final CompletableFuture<KeyRing> initialKeyRing;
+
+    private final boolean rotationEnabled;
+    private final int keysToKeep;
+    private final AuthMetrics authMetrics;
+
+    public JwkService(
+            @Value("${app.security.jwk.rotation.enabled:true}") boolean rotationEnabled,
+            @Value("${app.security.jwk.rotation.keys-to-keep:3}") int keysToKeep,
+            AuthMetrics authMetrics) {
+        this.rotationEnabled = rotationEnabled;
+        this.keysToKeep = keysToKeep;
+        this.authMetrics = authMetrics;
+        this.initialKeyRing = CompletableFuture.supplyAsync(() -> KeyRing.of(List.of(generateRsaKey())),
+                task -> Thread.ofPlatform().name("jwk-initial-keygen").daemon().start(task));
+        log.info("JwkService initialized. Rotation enabled: {}. Keys to keep: {}", rotationEnabled, keysToKeep);
+    }
+
+    /**
+     * Returns the current key used for signing new JWTs.
+     * This is always the most recently generated key.
+     */
+    public RSAKey getActiveSigningKey() {
+        return keyRing().keys().getFirst();
+    }
+
+    /**
+     * Returns the active key ID together with a ready-made signer for it.
+     * Both come from the same snapshot, so they always match even during rotation.
+     */
+    public SigningKey getActiveSigner() {
+        return keyRing().activeSigner();
+    }
+
+    /**
+     * Returns the JWK Set containing all keys. Serialize it with {@link JWKSet#toJSONObject()},
+     * which only emits the public parts, for the /.well-known/jwks.json endpoint.
+     */
+    public JWKSet getJwkSet() {
+        return keyRing().jwkSet();
+    }
+
+    /**
+     * Entity tag of the current JWK set, derived from its key IDs. Key IDs are never reused, so
+     * the tag changes exactly when rotation changes the set; clients revalidate their cached
+     * copy with {@code If-None-Match} and get a 304 until then.
+     */
+    public String getJwkSetETag() {
+        return keyRing().eTag();
+    }
+
+    /**
+     * Finds the correct key by its ID and returns a verifier for it.
+     * Used by JwtService to verify incoming tokens.
+     */
+    public Optional<JWSVerifier> findVerifierByKeyId(String keyId) {
+        return Optional.ofNullable(keyRing().verifiers().get(keyId));
+    }
+
+    /**
+     * Rotates the keys by generating a new key and removing old ones.
+     * This method is called by a scheduled task.
+     */
+    public void rotateKeys() {
+        if (!rotationEnabled) {
+            return;
+        }
+
+        log.info("Initiating JWK rotation...");
+        long start = System.nanoTime();
+        RSAKey newKey = generateRsaKey();
+        rotationLock.lock();
+        try {
+            List<RSAKey> keys = new ArrayList<>(keyRing().keys());
+            keys.addFirst(newKey);
+            while (keys.size() > keysToKeep) {
+                RSAKey removedKey = keys.removeLast();
+                log.info("Removed old JWK with key ID: {}", removedKey.getKeyID());
+            }
+            keyRing = KeyRing.of(keys);
+            log.info("JWK rotation complete. Current number of keys: {}. Active key ID: {}", keys.size(), newKey.getKeyID());
+        } finally {
+            rotationLock.unlock();
+            AuthMetrics.record(authMetrics.getJwkRotation(), start);
+        }
+    }
+
+    private KeyRing keyRing() {
+        KeyRing current = keyRing;
+        if (current != null) {
+            return current;
+        }
+        rotationLock.lock();
+        try {
+            // A rotation may have installed a ring while this thread waited for the lock.
+            if (keyRing == null) {
+                keyRing = initialKeyRing.join();
+            }
+            return keyRing;
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    private RSAKey generateRsaKey() {
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+            KeyPair keyPair = keyPairGenerator.generateKeyPair();
+            RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+            RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
+
+            return new RSAKey.Builder(publicKey)
+                    .privateKey(privateKey)
+                    .keyID(UUID.randomUUID().toString())
+                    .build();
+        } catch (Exception e) {
+            log.error("Failed to generate RSA key pair", e);
+            throw new IllegalStateException("Failed to generate RSA key pair", e);
+        }
+    }
+
+    public record SigningKey(String keyId, JWSSigner signer) {
+    }
+
+    /**
+     * Immutable snapshot of the key set, newest key first.
+     */
+    private record KeyRing(List<RSAKey> keys, JWKSet jwkSet, Map<String, JWSVerifier> verifiers, SigningKey activeSigner,
+                           String eTag) {
+
+        static KeyRing of(List<RSAKey> keys) {
+            Map<String, JWSVerifier> verifiers = new HashMap<>();
+            for (RSAKey key : keys) {
+                try {
+                    verifiers.put(key.getKeyID(), new RSASSAVerifier(key.toRSAPublicKey()));
+                } catch (Exception e) {
+                    log.error("Failed to create verifier for key ID: {}", key.getKeyID(), e);
+                }
+            }
+            RSAKey active = keys.getFirst();
+            SigningKey signer;
+            try {
+                signer = new SigningKey(active.getKeyID(), new RSASSASigner(active));
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to create signer for key ID: " + active.getKeyID(), e);
+            }
+            String eTag = '"' + UUID.nameUUIDFromBytes(keys.stream().map(RSAKey::getKeyID)
+                    .collect(Collectors.joining(",")).getBytes(StandardCharsets.UTF_8)).toString() + '"';
+            return new KeyRing(List.copyOf(keys), new JWKSet(List.<JWK>copyOf(keys)), Map.copyOf(verifiers), signer, eTag);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.opticoretechnologies.rest.identity.service;
+
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.opticoretechnologies.identity.client.IdentityClaimNames;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.exception.TokenException;
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JwtService {
+    private final JwkService jwkService;
+    private final AuthMetrics authMetrics;
+    private final RoleDictionary roleDictionary;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    @Value("${app.jwt.access-token-expiration-sec}")
+    private long accessTokenExpiration;
+    @Value("${app.security.jwt.compact-roles:false}")
+    private boolean compactRoles;
+
+    public String extractUsername(String token) {
+        return extractClaim(token, JWTClaimsSet::getSubject);
+    }
+
+    public <T> T extractClaim(String token, Function<JWTClaimsSet, T> claimsResolver) {
+        final JWTClaimsSet claims = extractAllClaims(token);
+        return claimsResolver.apply(claims);
+    }
+
+    public String generateToken(UserDetails userDetails) {
+        JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+                .subject(userDetails.getUsername())
+                .issueTime(new Date(System.currentTimeMillis()))
+                .expirationTime(new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(accessTokenExpiration)));
+        if (compactRoles) {
+            // Roles as a bitmask against the published role dictionary; unknown roles keep their names.
+            RoleDictionary.Encoded encoded = roleDictionary.encode(userDetails.getAuthorities());
+            claims.claim(IdentityClaimNames.ROLE_VERSION, roleDictionary.version()).claim(IdentityClaimNames.ROLE_BITS, encoded.bits());
+            if (!encoded.others().isEmpty()) {
+                claims.claim(IdentityClaimNames.ROLES, encoded.others());
+            }
+        } else {
+            claims.claim(IdentityClaimNames.ROLES, userDetails.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toList()));
+        }
+        if (userDetails instanceof User user) {
+            claims.claim(IdentityClaimNames.EMAIL, user.getEmail());
+            if (user.getId() != null) {
+                claims.claim(IdentityClaimNames.USER_ID, user.getId().toString()).claim(IdentityClaimNames.TOKEN_VERSION, user.getTokenVersion());
+            }
+        }
+        JWTClaimsSet claimsSet = claims.build();
+
+        // Use the active signing key from JwkService
+        var activeKey = jwkService.getActiveSigner();
+
+        JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID(activeKey.keyId()) // Set the key ID in the header
+                .build();
+
+        // Sign the compact form directly rather than through SignedJWT.sign(), which is
+        // synchronized: the JDK's RSA code may park on an internal lock, and parking while
+        // holding a monitor pins a virtual thread to its carrier.
+        String signingInput = header.toBase64URL() + "." + claimsSet.toPayload().toBase64URL();
+
+        long start = System.nanoTime();
+        try {
+            Base64URL signature = activeKey.signer().sign(header, signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + signature;
+        } catch (Exception e) {
+            log.error("Error signing JWT with key ID {}", activeKey.keyId(), e);
+            throw new RuntimeException("Error signing JWT", e);
+        } finally {
+            AuthMetrics.record(authMetrics.getJwtSign(), start);
+        }
+    }
+
+    /**
+     * Parses the token once and checks key ID, signature, expiry and token version, in that order.
+     * Never throws; the outcome says why a token was rejected and is counted per outcome.
+     */
+    public TokenVerification verifyToken(String token) {
+        long start = System.nanoTime();
+        TokenVerification verification = doVerifyToken(token);
+        AuthMetrics.record(authMetrics.getJwtVerify(), start);
+        authMetrics.verificationOutcome(verification.outcome());
+        return verification;
+    }
+
+    private TokenVerification doVerifyToken(String token) {
+        SignedJWT signedJWT;
+        JWTClaimsSet claims;
+        try {
+            signedJWT = SignedJWT.parse(token);
+            claims = signedJWT.getJWTClaimsSet();
+        } catch (ParseException e) {
+            log.debug("Could not parse JWT token: {}", e.getMessage());
+            return TokenVerification.failed(TokenVerification.Outcome.MALFORMED);
+        }
+
+        String keyId = signedJWT.getHeader().getKeyID();
+        if (keyId == null) {
+            log.debug("JWT token does not contain key ID ('kid') in header.");
+            return TokenVerification.failed(TokenVerification.Outcome.MISSING_KID);
+        }
+
+        long lookupStart = System.nanoTime();
+        Optional<JWSVerifier> verifier = jwkService.findVerifierByKeyId(keyId);
+        AuthMetrics.record(authMetrics.getJwkLookup(), lookupStart);
+        if (verifier.isEmpty()) {
+            log.debug("No valid public key found for token key ID: {}", keyId);
+            return TokenVerification.failed(TokenVerification.Outcome.UNKNOWN_KID);
+        }
+
+        try {
+            if (!signedJWT.verify(verifier.get())) {
+                return TokenVerification.failed(TokenVerification.Outcome.BAD_SIGNATURE);
+            }
+        } catch (JOSEException e) {
+            log.debug("JWT signature verification failed: {}", e.getMessage());
+            return TokenVerification.failed(TokenVerification.Outcome.BAD_SIGNATURE);
+        }
+
+        Date expiration = claims.getExpirationTime();
+        if (expiration == null || expiration.before(new Date())) {
+            return new TokenVerification(TokenVerification.Outcome.EXPIRED, claims);
+        }
+        if (!tokenVersionRegistry.isCurrent(claims)) {
+            return new TokenVerification(TokenVerification.Outcome.REVOKED, claims);
+        }
+        return new TokenVerification(TokenVerification.Outcome.VALID, claims);
+    }
+
+    /**
+     * Builds the principal from the claims of a verified token, for stateless authentication.
+     * Reads both the plain {@code roles} claim and the compact {@code rv}/{@code rb} form, so
+     * tokens issued before or after switching {@code compact-roles} are accepted alike.
+     */
+    public TokenPrincipal toPrincipal(JWTClaimsSet claims) {
+        try {
+            List<String> roles = claims.getStringListClaim(IdentityClaimNames.ROLES);
+            String roleBits = claims.getStringClaim(IdentityClaimNames.ROLE_BITS);
+            List<GrantedAuthority> authorities;
+            if (roleBits != null) {
+                authorities = roleDictionary.decode(claims.getStringClaim(IdentityClaimNames.ROLE_VERSION), roleBits, roles);
+            } else {
+                List<GrantedAuthority> named = new ArrayList<>();
+                if (roles != null) {
+                    for (String role : roles) {
+                        named.add(new SimpleGrantedAuthority(role));
+                    }
+                }
+                authorities = List.copyOf(named);
+            }
+            return new TokenPrincipal(claims.getSubject(), claims.getStringClaim(IdentityClaimNames.EMAIL), authorities);
+        } catch (ParseException | IllegalArgumentException e) {
+            throw new TokenException("Malformed claims in access token", e);
+        }
+    }
+
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        TokenVerification verification = verifyToken(token);
+        return verification.isValid()
+                && userDetails.getUsername().equals(verification.claims().getSubject());
+    }
+
+    private JWTClaimsSet extractAllClaims(String token) {
+        try {
+            return SignedJWT.parse(token).getJWTClaimsSet();
+        } catch (ParseException e) {
+            log.debug("Could not parse JWT token: {}", e.getMessage());
+            throw new TokenException("Invalid JWT token", e);
+        }
+    }
+}
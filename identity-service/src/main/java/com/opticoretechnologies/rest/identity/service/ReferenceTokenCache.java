@@ -0,0 +1,105 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationEvent;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationListener;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local cache of resolved reference tokens, keyed by handle hash.
+ * <p>
+ * Bounded twice: at most {@code max-entries} handles, each trusted for at most {@code ttl-ms}
+ * before the database is asked again. Revocations remove the entry here right away and on the
+ * other nodes through {@link InvalidationType#ACCESS_HANDLE} events; the TTL bounds how long a
+ * node that missed such an event can keep accepting the handle. Token version bumps need no
+ * event of their own, since every hit is checked against {@link TokenVersionRegistry}.
+ */
+@Component
+@Slf4j
+public class ReferenceTokenCache implements InvalidationListener {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ReferenceTokenCache(@Value("${app.security.reference-tokens.cache.max-entries:10000}") int maxEntries,
+                               @Value("${app.security.reference-tokens.cache.ttl-ms:30000}") long ttlMs,
+                               MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.hits = cacheCounter(meterRegistry, "hit");
+        this.misses = cacheCounter(meterRegistry, "miss");
+        Gauge.builder("identity.reference_token.cache.size", entries, Map::size)
+                .description("Reference tokens resolved from the node-local cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the cached handle, or null if it is not cached, its TTL ran out or it expired
+     */
+    ReferenceTokenService.Handle get(String handleHash) {
+        Entry entry = entries.get(handleHash);
+        if (entry != null) {
+            if (System.nanoTime() - entry.cachedAtNanos() < ttlNanos
+                    && entry.handle().expiresAtMillis() > System.currentTimeMillis()) {
+                hits.increment();
+                return entry.handle();
+            }
+            entries.remove(handleHash, entry);
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(String handleHash, ReferenceTokenService.Handle handle) {
+        if (entries.size() < maxEntries) {
+            entries.put(handleHash, new Entry(handle, System.nanoTime()));
+        }
+    }
+
+    void remove(String handleHash) {
+        entries.remove(handleHash);
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.type() == InvalidationType.ACCESS_HANDLE) {
+            entries.remove(event.key());
+        }
+    }
+
+    @Override
+    public void onResync() {
+        entries.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.reference-tokens.cache.ttl-ms:30000}")
+    public void purgeExpired() {
+        if (entries.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.cachedAtNanos() >= ttlNanos);
+        log.debug("Reference token cache entries after purge: {}", entries.size());
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("identity.reference_token.cache")
+                .description("Reference token resolutions answered from the node-local cache or not")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(ReferenceTokenService.Handle handle, long cachedAtNanos) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.config.ReadYourWritesTracker;
+import com.opticoretechnologies.rest.identity.entity.AccessHandle;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.invalidation.CacheInvalidationBus;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationType;
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import com.opticoretechnologies.rest.identity.repository.AccessHandleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and resolves reference tokens: opaque access tokens that, unlike JWTs, can be revoked
+ * with immediate effect.
+ * <p>
+ * A handle is {@value #PREFIX} followed by 32 random bytes in base64url, so it is told apart from
+ * a JWT or refresh token by its shape alone. Its SHA-256 is stored in {@code _access_handles}.
+ * Resolving goes through the {@link ReferenceTokenCache} first, so a hot handle costs one hash
+ * and one map lookup; a miss costs one indexed read. Either way the handle must be issued at the
+ * user's current token version, which the {@link TokenVersionRegistry} answers from memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceTokenService {
+    static final String PREFIX = "ref_";
+    private static final int HANDLE_BYTES = 32;
+    private static final int HANDLE_LENGTH = PREFIX.length() + 43;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final AccessHandleRepository accessHandleRepository;
+    private final ReferenceTokenCache referenceTokenCache;
+    private final TokenHashingService tokenHashingService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final AuthMetrics authMetrics;
+    @Value("${app.jwt.access-token-expiration-sec}")
+    private long accessTokenExpiration;
+
+    /**
+     * Whether the token has the shape of a reference token. Says nothing about its validity.
+     */
+    public static boolean isHandle(String token) {
+        return token.length() == HANDLE_LENGTH && token.startsWith(PREFIX);
+    }
+
+    /**
+     * Issues a handle valid for the access token lifetime and caches it on this node.
+     *
+     * @return the raw handle, which is not stored anywhere
+     */
+    @Transactional
+    public String issue(User user) {
+        byte[] bytes = new byte[HANDLE_BYTES];
+        RANDOM.nextBytes(bytes);
+        String rawHandle = PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String handleHash = tokenHashingService.hashToken(rawHandle);
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusSeconds(accessTokenExpiration);
+        accessHandleRepository.save(AccessHandle.builder()
+                .handle(handleHash)
+                .user(user)
+                .tokenVersion(user.getTokenVersion())
+                .issuedAt(now)
+                .expiresAt(expiresAt)
+                .revoked(false)
+                .build());
+        readYourWritesTracker.recordWrite(ReadYourWritesTracker.accessHandleKey(handleHash));
+        referenceTokenCache.put(handleHash, new Handle(user.getId(), user.getUsername(), user.getTokenVersion(),
+                now.toEpochMilli(), expiresAt.toEpochMilli()));
+        return rawHandle;
+    }
+
+    /**
+     * Resolves a handle that is unrevoked, unexpired and issued at the user's current token
+     * version; empty for anything else, including strings that are not handles at all.
+     */
+    public Optional<Handle> resolve(String rawHandle) {
+        if (!isHandle(rawHandle)) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        try {
+            String handleHash = tokenHashingService.hashToken(rawHandle);
+            Handle handle = referenceTokenCache.get(handleHash);
+            if (handle == null) {
+                handle = load(handleHash);
+                if (handle == null) {
+                    return Optional.empty();
+                }
+                referenceTokenCache.put(handleHash, handle);
+            }
+            if (!tokenVersionRegistry.isCurrent(handle.userId(), handle.tokenVersion())) {
+                referenceTokenCache.remove(handleHash);
+                return Optional.empty();
+            }
+            return Optional.of(handle);
+        } finally {
+            AuthMetrics.record(authMetrics.getReferenceResolve(), start);
+        }
+    }
+
+    private Handle load(String handleHash) {
+        Optional<AccessHandle> stored = readYourWritesTracker.readAfterWrite(
+                ReadYourWritesTracker.accessHandleKey(handleHash), () -> accessHandleRepository.findByHandle(handleHash));
+        if (stored.isEmpty() || stored.get().isRevoked() || !stored.get().getExpiresAt().isAfter(Instant.now())) {
+            return null;
+        }
+        AccessHandle accessHandle = stored.get();
+        return new Handle(accessHandle.getUser().getId(), accessHandle.getUser().getUsername(), accessHandle.getTokenVersion(),
+                accessHandle.getIssuedAt().toEpochMilli(), accessHandle.getExpiresAt().toEpochMilli());
+    }
+
+    /**
+     * Revokes the handle on every node: here at once, elsewhere when the invalidation event
+     * arrives, and at the latest when their cached copy reaches its TTL.
+     *
+     * @return whether an unrevoked handle was found
+     */
+    @Transactional
+    public boolean revoke(String rawHandle) {
+        if (!isHandle(rawHandle)) {
+            return false;
+        }
+        String handleHash = tokenHashingService.hashToken(rawHandle);
+        boolean revoked = accessHandleRepository.revokeByHandle(handleHash) > 0;
+        referenceTokenCache.remove(handleHash);
+        readYourWritesTracker.recordWrite(ReadYourWritesTracker.accessHandleKey(handleHash));
+        cacheInvalidationBus.publish(InvalidationType.ACCESS_HANDLE, handleHash);
+        return revoked;
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.reference-tokens.purge-interval-ms:300000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = accessHandleRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired reference tokens", deleted);
+        }
+    }
+
+    /**
+     * A resolved reference token.
+     */
+    public record Handle(UUID userId, String username, int tokenVersion, long issuedAtMillis, long expiresAtMillis) {
+    }
+}
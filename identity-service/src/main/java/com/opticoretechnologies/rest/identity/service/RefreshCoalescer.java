@@ -0,0 +1,127 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for refresh token rotation, keyed by the hash of the presented refresh token.
+ * <p>
+ * Clients often refresh with the same cookie several times at once (one call per tab, parallel
+ * calls on wake). The first call rotates; calls arriving while it runs wait for it and get its
+ * result, and so do calls arriving up to {@code grace-window-ms} after it finished, so every
+ * duplicate ends up with the same new token pair instead of a 401 or a second rotation. A
+ * failed rotation is shared with the calls already waiting but not remembered.
+ * <p>
+ * Within the grace window the old refresh token keeps yielding the new pair on this node; keep
+ * the window short. Other nodes do not share flights, so duplicates spread across nodes still
+ * see the old token as revoked.
+ */
+@Component
+@Slf4j
+public class RefreshCoalescer {
+    private final long graceWindowNanos;
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+    private final Counter sharedInFlight;
+    private final Counter sharedFromGrace;
+
+    public RefreshCoalescer(@Value("${app.security.refresh.coalescing.grace-window-ms:5000}") long graceWindowMs,
+                            MeterRegistry meterRegistry) {
+        this.graceWindowNanos = TimeUnit.MILLISECONDS.toNanos(graceWindowMs);
+        this.sharedInFlight = sharedCounter(meterRegistry, "in_flight");
+        this.sharedFromGrace = sharedCounter(meterRegistry, "grace");
+        Gauge.builder("identity.refresh.coalescing.entries", flights, Map::size)
+                .description("Refresh rotations in flight or within their grace window")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code rotation} unless a rotation of the same token is in flight or finished within
+     * the grace window, in which case its result is returned (or its exception rethrown).
+     */
+    public Rotation rotate(String tokenHash, Supplier<Rotation> rotation) {
+        Flight mine = new Flight();
+        while (true) {
+            Flight existing = flights.putIfAbsent(tokenHash, mine);
+            if (existing == null) {
+                return lead(tokenHash, mine, rotation);
+            }
+            if (!existing.isExpired(System.nanoTime())) {
+                (existing.result.isDone() ? sharedFromGrace : sharedInFlight).increment();
+                return follow(existing);
+            }
+            flights.remove(tokenHash, existing);
+        }
+    }
+
+    private Rotation lead(String tokenHash, Flight flight, Supplier<Rotation> rotation) {
+        Rotation result;
+        try {
+            result = rotation.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(tokenHash, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        flight.completedAtNanos = System.nanoTime();
+        flight.result.complete(result);
+        if (graceWindowNanos <= 0) {
+            flights.remove(tokenHash, flight);
+        }
+        return result;
+    }
+
+    private static Rotation follow(Flight flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.refresh.coalescing.purge-interval-ms:10000}")
+    public void purgeExpired() {
+        if (flights.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        flights.values().removeIf(flight -> flight.isExpired(now));
+        log.debug("Refresh coalescing entries after purge: {}", flights.size());
+    }
+
+    private static Counter sharedCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("identity.refresh.coalesced")
+                .description("Refresh requests answered with the result of another request's rotation")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The outcome of one rotation, handed to every request that presented the old token.
+     */
+    public record Rotation(String accessToken, String rawRefreshToken) {
+    }
+
+    private final class Flight {
+        private final CompletableFuture<Rotation> result = new CompletableFuture<>();
+        private volatile long completedAtNanos;
+
+        boolean isExpired(long now) {
+            return result.isDone() && !result.isCompletedExceptionally() && now - completedAtNanos > graceWindowNanos;
+        }
+    }
+}
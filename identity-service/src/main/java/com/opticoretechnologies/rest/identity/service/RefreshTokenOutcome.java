@@ -0,0 +1,11 @@
+package com.opticoretechnologies.rest.identity.service;
+
+/**
+ * Why a presented refresh token was accepted or rejected; recorded as a metric tag.
+ */
+public enum RefreshTokenOutcome {
+    VALID,
+    NOT_FOUND,
+    REVOKED,
+    EXPIRED
+}
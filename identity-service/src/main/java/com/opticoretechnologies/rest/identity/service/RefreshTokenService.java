@@ -0,0 +1,237 @@
+package com.opticoretechnologies.rest.identity.service;
+
+
+import com.opticoretechnologies.rest.identity.config.ReadYourWritesTracker;
+import com.opticoretechnologies.rest.identity.dto.SessionInfo;
+import com.opticoretechnologies.rest.identity.entity.RefreshToken;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.exception.ResourceNotFoundException;
+import com.opticoretechnologies.rest.identity.exception.TokenException;
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import com.opticoretechnologies.rest.identity.outbox.OutboxEventType;
+import com.opticoretechnologies.rest.identity.outbox.TransactionalOutbox;
+import com.opticoretechnologies.rest.identity.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+    private final TokenHashingService tokenHashingService;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AuthMetrics authMetrics;
+    private final TransactionalOutbox outbox;
+    @Value("${app.jwt.refresh-token-expiration-ms}")
+    private Long refreshTokenDurationMs;
+    @Value("${app.security.sessions.max-per-user:10}")
+    private int maxSessionsPerUser;
+    @Value("${app.security.sessions.max-per-device:3}")
+    private int maxSessionsPerDevice;
+
+    /**
+     * Starts a new session. If the user would exceed the per-user or per-device session cap,
+     * the oldest sessions are revoked in the same transaction. The cap is not enforced under
+     * a lock, so concurrent logins may briefly exceed it by one; the next login corrects it.
+     */
+    @Transactional
+    public String createRefreshToken(User user, String deviceInfo) {
+        return createRefreshToken(user, deviceInfo, false);
+    }
+
+    /**
+     * As {@link #createRefreshToken(User, String)}, for a session whose access tokens are
+     * reference tokens if {@code referenceAccess} is set.
+     */
+    @Transactional
+    public String createRefreshToken(User user, String deviceInfo, boolean referenceAccess) {
+        enforceSessionCap(user, deviceInfo);
+        return insertRefreshToken(user, deviceInfo, referenceAccess);
+    }
+
+    private String insertRefreshToken(User user, String deviceInfo, boolean referenceAccess) {
+        long start = System.nanoTime();
+        String rawToken = generateRawToken();
+        String hashedToken = tokenHashingService.hashToken(rawToken);
+
+        RefreshToken refreshToken = RefreshToken.builder()
+                .token(hashedToken)
+                .user(user)
+                .issuedAt(Instant.now())
+                .expiryDate(Instant.now().plusMillis(refreshTokenDurationMs))
+                .revoked(false)
+                .deviceInfo(deviceInfo)
+                .referenceAccess(referenceAccess)
+                .build();
+        refreshTokenRepository.save(refreshToken);
+        readYourWritesTracker.recordWrite(ReadYourWritesTracker.refreshTokenKey(hashedToken));
+        AuthMetrics.record(authMetrics.getRefreshCreate(), start);
+        return rawToken;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<RefreshToken> validateRefreshToken(String rawToken) {
+        long start = System.nanoTime();
+        String token = tokenHashingService.hashToken(rawToken);
+        Optional<RefreshToken> refreshToken = readYourWritesTracker.readAfterWrite(
+                ReadYourWritesTracker.refreshTokenKey(token), () -> refreshTokenRepository.findByToken(token));
+        RefreshTokenOutcome outcome = refreshToken.map(this::outcomeOf).orElse(RefreshTokenOutcome.NOT_FOUND);
+        authMetrics.refreshOutcome(outcome);
+        AuthMetrics.record(authMetrics.getRefreshValidate(), start);
+        return outcome == RefreshTokenOutcome.VALID ? refreshToken : Optional.empty();
+    }
+
+    @Transactional
+    public String rotateRefreshToken(String rawToken) {
+        return validateRefreshToken(rawToken)
+                .flatMap(this::rotateRefreshToken)
+                .orElseThrow(() -> new TokenException("Invalid or expired refresh token"));
+    }
+
+    /**
+     * Rotates a token the caller has just obtained from {@link #validateRefreshToken(String)},
+     * without looking it up a second time. That lookup may have been answered by a lagging
+     * replica, so the old token is claimed with a conditional update on the primary rather than
+     * trusted: of several rotations or a rotation and a logout racing for the same token, only
+     * one succeeds.
+     *
+     * @return the new raw token, empty if the old token was revoked in the meantime
+     */
+    @Transactional
+    public Optional<String> rotateRefreshToken(RefreshToken oldRefreshToken) {
+        long start = System.nanoTime();
+        try {
+            if (refreshTokenRepository.revokeIfActive(oldRefreshToken.getId()) == 0) {
+                log.debug("Refresh token {} was revoked before it could be rotated", oldRefreshToken.getId());
+                return Optional.empty();
+            }
+            recordRevoked(oldRefreshToken);
+            // Rotation replaces a session with a new one, so the session count does not change.
+            return Optional.of(insertRefreshToken(oldRefreshToken.getUser(), oldRefreshToken.getDeviceInfo(),
+                    oldRefreshToken.isReferenceAccess()));
+        } finally {
+            AuthMetrics.record(authMetrics.getRefreshRotate(), start);
+        }
+    }
+
+    /**
+     * Revokes the token if it is still valid, with the same conditional update as rotation.
+     *
+     * @return the revoked token, empty if it was unknown, expired or already revoked
+     */
+    @Transactional
+    public Optional<RefreshToken> revokeRefreshToken(String rawToken) {
+        long start = System.nanoTime();
+        Optional<RefreshToken> revoked = validateRefreshToken(rawToken)
+                .filter(refreshToken -> refreshTokenRepository.revokeIfActive(refreshToken.getId()) == 1);
+        revoked.ifPresent(refreshToken -> {
+            recordRevoked(refreshToken);
+            outbox.record(OutboxEventType.SESSION_REVOKED, refreshToken.getUser().getId(),
+                    Map.of("sessionId", refreshToken.getId(), "username", refreshToken.getUser().getUsername()));
+        });
+        AuthMetrics.record(authMetrics.getRefreshRevoke(), start);
+        return revoked;
+    }
+
+    /**
+     * Lists the user's active sessions, newest first, marking the one {@code rawCurrentToken}
+     * belongs to.
+     */
+    @Transactional(readOnly = true)
+    public List<SessionInfo> listSessions(String username, String rawCurrentToken) {
+        String currentToken = rawCurrentToken == null ? null : tokenHashingService.hashToken(rawCurrentToken);
+        return refreshTokenRepository.findActiveByUsername(username, Instant.now()).stream()
+                .map(token -> SessionInfo.builder()
+                        .id(token.getId())
+                        .deviceInfo(token.getDeviceInfo())
+                        .issuedAt(token.getIssuedAt())
+                        .expiresAt(token.getExpiryDate())
+                        .current(token.getToken().equals(currentToken))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Revokes one of the user's active sessions.
+     *
+     * @return the revoked session
+     * @throws ResourceNotFoundException if the user has no active session with that ID
+     */
+    @Transactional
+    public RefreshToken revokeSession(String username, UUID sessionId) {
+        RefreshToken session = refreshTokenRepository.findActiveByUsername(username, Instant.now()).stream()
+                .filter(token -> token.getId().equals(sessionId))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Session", "id", sessionId));
+        session.setRevoked(true);
+        refreshTokenRepository.save(session);
+        recordRevoked(session);
+        outbox.record(OutboxEventType.SESSION_REVOKED, session.getUser().getId(),
+                Map.of("sessionId", sessionId, "username", username));
+        return session;
+    }
+
+    private void enforceSessionCap(User user, String deviceInfo) {
+        if (maxSessionsPerUser <= 0 && maxSessionsPerDevice <= 0) {
+            return;
+        }
+        int keepForUser = maxSessionsPerUser > 0 ? maxSessionsPerUser - 1 : Integer.MAX_VALUE;
+        int keepForDevice = maxSessionsPerDevice > 0 ? maxSessionsPerDevice - 1 : Integer.MAX_VALUE;
+        int kept = 0;
+        int keptOnDevice = 0;
+        List<UUID> evicted = new ArrayList<>();
+        // Newest first, so whatever is left over once the caps are reached is the oldest.
+        for (RefreshToken session : refreshTokenRepository.findActiveByUserId(user.getId(), Instant.now())) {
+            boolean sameDevice = Objects.equals(session.getDeviceInfo(), deviceInfo);
+            if (kept >= keepForUser || (sameDevice && keptOnDevice >= keepForDevice)) {
+                evicted.add(session.getId());
+                recordRevoked(session);
+            } else {
+                kept++;
+                if (sameDevice) {
+                    keptOnDevice++;
+                }
+            }
+        }
+        if (!evicted.isEmpty()) {
+            refreshTokenRepository.revokeAllById(evicted);
+            log.debug("Revoked {} oldest sessions of user {} to stay within the session cap", evicted.size(), user.getId());
+        }
+    }
+
+    /**
+     * Revocations are writes too: without this, the next validation of the token on this node
+     * could still read it as active from a lagging replica.
+     */
+    private void recordRevoked(RefreshToken refreshToken) {
+        readYourWritesTracker.recordWrite(ReadYourWritesTracker.refreshTokenKey(refreshToken.getToken()));
+    }
+
+    private RefreshTokenOutcome outcomeOf(RefreshToken refreshToken) {
+        if (refreshToken.isRevoked()) {
+            return RefreshTokenOutcome.REVOKED;
+        }
+        if (!refreshToken.getExpiryDate().isAfter(Instant.now())) {
+            return RefreshTokenOutcome.EXPIRED;
+        }
+        return RefreshTokenOutcome.VALID;
+    }
+
+
+    static String generateRawToken() {
+        return UUID.randomUUID().toString() + "." + Base64.getEncoder().encodeToString(UUID.randomUUID().toString().getBytes());
+    }
+}
@@ -0,0 +1,155 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.identity.client.RoleBits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned dictionary of role names for compact access tokens.
+ * <p>
+ * A compact token carries its roles as a bitmask plus the dictionary version instead of a list
+ * of role names; the wire format lives in {@link RoleBits} so that consuming services decode it
+ * the same way. The dictionary is append-only: each version is a hash of the role list up to
+ * that point, so tokens issued before roles were appended still decode, while a token naming a
+ * version this node has never seen is rejected.
+ * <p>
+ * Decoding never allocates authorities: every role has one shared {@link SimpleGrantedAuthority},
+ * and for small dictionaries the immutable authority list of every possible bitmask is built
+ * up front.
+ */
+@Component
+public class RoleDictionary {
+    private static final int MAX_PRECOMPUTED_ROLES = 10;
+
+    private final List<String> roles;
+    private final Map<String, Integer> bitByRole;
+    private final GrantedAuthority[] authorities;
+    private final Map<String, Integer> sizeByVersion;
+    private final List<GrantedAuthority>[] authoritiesByMask;
+    private final String version;
+    private final Map<String, Object> published;
+
+    public RoleDictionary(@Value("${app.security.jwt.role-dictionary:ROLE_USER,ROLE_ADMIN}") List<String> roles) {
+        List<String> distinct = List.copyOf(new LinkedHashSet<>(roles));
+        if (distinct.size() > RoleBits.MAX_ROLES) {
+            throw new IllegalArgumentException("A role dictionary holds at most " + RoleBits.MAX_ROLES + " roles, got " + distinct.size());
+        }
+        this.roles = distinct;
+        this.bitByRole = new HashMap<>();
+        this.authorities = new GrantedAuthority[distinct.size()];
+        for (int i = 0; i < distinct.size(); i++) {
+            bitByRole.put(distinct.get(i), i);
+            authorities[i] = new SimpleGrantedAuthority(distinct.get(i));
+        }
+        this.sizeByVersion = new HashMap<>();
+        for (int size = 0; size <= distinct.size(); size++) {
+            sizeByVersion.put(RoleBits.version(distinct.subList(0, size)), size);
+        }
+        this.version = RoleBits.version(distinct);
+        this.authoritiesByMask = precompute();
+        this.published = Map.of("version", version, "roles", distinct);
+    }
+
+    public String version() {
+        return version;
+    }
+
+    /**
+     * Entity tag of the published dictionary: its version, which is a hash of the role list.
+     */
+    public String eTag() {
+        return '"' + version + '"';
+    }
+
+    /**
+     * The dictionary as published next to the JWKS.
+     */
+    public Map<String, Object> toJsonObject() {
+        return published;
+    }
+
+    /**
+     * Splits the authorities into the bitmask of the ones in the dictionary and the names of
+     * the ones that are not, which stay in the plain {@code roles} claim.
+     */
+    public Encoded encode(Collection<? extends GrantedAuthority> granted) {
+        long mask = 0;
+        List<String> others = List.of();
+        for (GrantedAuthority authority : granted) {
+            Integer bit = bitByRole.get(authority.getAuthority());
+            if (bit != null) {
+                mask |= 1L << bit;
+            } else {
+                if (others.isEmpty()) {
+                    others = new ArrayList<>();
+                }
+                others.add(authority.getAuthority());
+            }
+        }
+        return new Encoded(RoleBits.encode(mask), others);
+    }
+
+    /**
+     * Decodes the bitmask of a token issued under {@code tokenVersion}, adding any roles
+     * carried by name.
+     *
+     * @throws IllegalArgumentException if the version is unknown or the bitmask names a role
+     *                                  that did not exist in that version
+     */
+    public List<GrantedAuthority> decode(String tokenVersion, String bits, List<String> others) {
+        Integer size = tokenVersion == null ? null : sizeByVersion.get(tokenVersion);
+        if (size == null) {
+            throw new IllegalArgumentException("Unknown role dictionary version " + tokenVersion);
+        }
+        long mask = RoleBits.decode(bits);
+        if (size < RoleBits.MAX_ROLES && (mask >>> size) != 0) {
+            throw new IllegalArgumentException("Role bitmask exceeds dictionary version " + tokenVersion);
+        }
+        List<GrantedAuthority> decoded = authoritiesByMask != null ? authoritiesByMask[(int) mask] : fromMask(mask);
+        if (others == null || others.isEmpty()) {
+            return decoded;
+        }
+        List<GrantedAuthority> combined = new ArrayList<>(decoded.size() + others.size());
+        combined.addAll(decoded);
+        for (String other : others) {
+            combined.add(new SimpleGrantedAuthority(other));
+        }
+        return List.copyOf(combined);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<GrantedAuthority>[] precompute() {
+        if (roles.size() > MAX_PRECOMPUTED_ROLES) {
+            return null;
+        }
+        List<GrantedAuthority>[] table = new List[1 << roles.size()];
+        for (int mask = 0; mask < table.length; mask++) {
+            table[mask] = fromMask(mask);
+        }
+        return table;
+    }
+
+    private List<GrantedAuthority> fromMask(long mask) {
+        List<GrantedAuthority> result = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            result.add(authorities[Long.numberOfTrailingZeros(remaining)]);
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * @param bits   base64url bitmask of the roles found in the dictionary
+     * @param others names of the roles that are not in the dictionary
+     */
+    public record Encoded(String bits, List<String> others) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.opticoretechnologies.rest.identity.service;
+
+
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.stereotype.Service;
+
+
+@Service
+@RequiredArgsConstructor
+public class TokenHashingService {
+    private final AuthMetrics authMetrics;
+
+    public String hashToken(String rawToken) {
+        long start = System.nanoTime();
+        String hash = DigestUtils.sha256Hex(rawToken);
+        AuthMetrics.record(authMetrics.getTokenHash(), start);
+        return hash;
+    }
+}
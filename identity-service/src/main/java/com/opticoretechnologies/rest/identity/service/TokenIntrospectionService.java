@@ -0,0 +1,206 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.opticoretechnologies.rest.identity.dto.IntrospectionResponse;
+import com.opticoretechnologies.rest.identity.entity.RefreshToken;
+import com.opticoretechnologies.rest.identity.exception.BadRequestException;
+import com.opticoretechnologies.rest.identity.exception.TokenException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers RFC 7662 introspection requests for access and refresh tokens.
+ * <p>
+ * Access tokens go through {@link JwtService#verifyToken(String)}; an active result can only
+ * change before the token expires through a token version bump, so it is cached per token until
+ * then (up to {@code cache.max-entries} tokens), and a repeated question costs one map lookup
+ * plus the {@link TokenVersionRegistry} check. Refresh
+ * tokens go through {@link RefreshTokenService#validateRefreshToken(String)} every time, since
+ * a logout or rotation revokes them at any moment. Reference tokens go through
+ * {@link ReferenceTokenService#resolve(String)}, which has its own cache, and report the
+ * user's current roles. Rejected tokens of any kind all share
+ * {@link IntrospectionResponse#INACTIVE}, which by design says nothing about why.
+ */
+@Service
+@Slf4j
+public class TokenIntrospectionService {
+    private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final ReferenceTokenService referenceTokenService;
+    private final UserDetailsService userDetailsService;
+    private final int maxBatchSize;
+    private final int maxCacheEntries;
+    private final Map<String, CachedResponse> cache = new ConcurrentHashMap<>();
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public TokenIntrospectionService(JwtService jwtService, RefreshTokenService refreshTokenService,
+                                     TokenVersionRegistry tokenVersionRegistry, ReferenceTokenService referenceTokenService,
+                                     UserDetailsService userDetailsService, MeterRegistry meterRegistry,
+                                     @Value("${app.security.introspection.max-batch-size:100}") int maxBatchSize,
+                                     @Value("${app.security.introspection.cache.max-entries:10000}") int maxCacheEntries) {
+        this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.referenceTokenService = referenceTokenService;
+        this.userDetailsService = userDetailsService;
+        this.maxBatchSize = maxBatchSize;
+        this.maxCacheEntries = maxCacheEntries;
+        this.cacheHits = cacheCounter(meterRegistry, "hit");
+        this.cacheMisses = cacheCounter(meterRegistry, "miss");
+        Gauge.builder("identity.introspection.cache.size", cache, Map::size)
+                .description("Active access tokens with a cached introspection response")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Introspects one token. The type is told apart by its shape (a JWT has three segments,
+     * a reference token its prefix), so {@code token_type_hint} is accepted but not needed, as
+     * RFC 7662 allows.
+     */
+    public IntrospectionResponse introspect(String token) {
+        if (token == null || token.isEmpty()) {
+            return IntrospectionResponse.INACTIVE;
+        }
+        if (ReferenceTokenService.isHandle(token)) {
+            return introspectReferenceToken(token);
+        }
+        return isJwt(token) ? introspectAccessToken(token) : introspectRefreshToken(token);
+    }
+
+    /**
+     * Introspects each token in turn; the responses are in request order.
+     *
+     * @throws BadRequestException if there are no tokens or more than {@code max-batch-size}
+     */
+    public List<IntrospectionResponse> introspectAll(List<String> tokens) {
+        if (tokens == null || tokens.isEmpty() || tokens.size() > maxBatchSize) {
+            throw new BadRequestException("Between 1 and " + maxBatchSize + " tokens can be introspected per request.");
+        }
+        List<IntrospectionResponse> responses = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            responses.add(introspect(token));
+        }
+        return responses;
+    }
+
+    private IntrospectionResponse introspectAccessToken(String token) {
+        long now = System.currentTimeMillis();
+        CachedResponse cached = cache.get(token);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                cacheHits.increment();
+                if (!tokenVersionRegistry.isCurrent(cached.claims())) {
+                    cache.remove(token, cached);
+                    return IntrospectionResponse.INACTIVE;
+                }
+                return cached.response();
+            }
+            cache.remove(token, cached);
+        }
+        cacheMisses.increment();
+
+        TokenVerification verification = jwtService.verifyToken(token);
+        if (!verification.isValid()) {
+            return IntrospectionResponse.INACTIVE;
+        }
+        JWTClaimsSet claims = verification.claims();
+        TokenPrincipal principal;
+        try {
+            principal = jwtService.toPrincipal(claims);
+        } catch (TokenException e) {
+            // Signed by us but not decodable here, e.g. a role dictionary version this node lacks.
+            return IntrospectionResponse.INACTIVE;
+        }
+        List<String> roles = new ArrayList<>(principal.authorities().size());
+        for (GrantedAuthority authority : principal.authorities()) {
+            roles.add(authority.getAuthority());
+        }
+        IntrospectionResponse response = new IntrospectionResponse(true, IntrospectionResponse.ACCESS_TOKEN,
+                claims.getSubject(), claims.getSubject(), epochSeconds(claims.getExpirationTime()),
+                epochSeconds(claims.getIssueTime()), List.copyOf(roles));
+        long expiresAtMillis = claims.getExpirationTime().getTime();
+        if (cache.size() < maxCacheEntries) {
+            cache.put(token, new CachedResponse(response, claims, expiresAtMillis));
+        }
+        return response;
+    }
+
+    private IntrospectionResponse introspectReferenceToken(String token) {
+        Optional<ReferenceTokenService.Handle> resolved = referenceTokenService.resolve(token);
+        if (resolved.isEmpty()) {
+            return IntrospectionResponse.INACTIVE;
+        }
+        ReferenceTokenService.Handle handle = resolved.get();
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(handle.username());
+        } catch (UsernameNotFoundException e) {
+            return IntrospectionResponse.INACTIVE;
+        }
+        List<String> roles = new ArrayList<>(user.getAuthorities().size());
+        for (GrantedAuthority authority : user.getAuthorities()) {
+            roles.add(authority.getAuthority());
+        }
+        return new IntrospectionResponse(true, IntrospectionResponse.ACCESS_TOKEN, handle.username(), handle.username(),
+                handle.expiresAtMillis() / 1000, handle.issuedAtMillis() / 1000, List.copyOf(roles));
+    }
+
+    private IntrospectionResponse introspectRefreshToken(String token) {
+        return refreshTokenService.validateRefreshToken(token)
+                .map(TokenIntrospectionService::toResponse)
+                .orElse(IntrospectionResponse.INACTIVE);
+    }
+
+    private static IntrospectionResponse toResponse(RefreshToken refreshToken) {
+        String username = refreshToken.getUser().getUsername();
+        return new IntrospectionResponse(true, IntrospectionResponse.REFRESH_TOKEN, username, username,
+                refreshToken.getExpiryDate().getEpochSecond(), refreshToken.getIssuedAt().getEpochSecond(), null);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.introspection.cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        if (cache.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(cached -> cached.expiresAtMillis() <= now);
+        log.debug("Introspection cache entries after purge: {}", cache.size());
+    }
+
+    private static boolean isJwt(String token) {
+        int first = token.indexOf('.');
+        return first > 0 && token.indexOf('.', first + 1) > first;
+    }
+
+    private static Long epochSeconds(Date date) {
+        return date == null ? null : date.getTime() / 1000;
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("identity.introspection.cache")
+                .description("Access token introspections answered from the cache or not")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record CachedResponse(IntrospectionResponse response, JWTClaimsSet claims, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal rebuilt from a verified access token in stateless mode, without loading the user.
+ * Roles and account state are as of when the token was issued.
+ */
+public record TokenPrincipal(String username, String email, List<GrantedAuthority> authorities) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
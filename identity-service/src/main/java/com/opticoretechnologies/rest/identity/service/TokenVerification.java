@@ -0,0 +1,29 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+/**
+ * Result of verifying an access token: the outcome and, when the token could be parsed,
+ * its claims. Claims of a token that is not {@link Outcome#VALID} must not be trusted.
+ */
+public record TokenVerification(Outcome outcome, JWTClaimsSet claims) {
+
+    public enum Outcome {
+        VALID,
+        MALFORMED,
+        MISSING_KID,
+        UNKNOWN_KID,
+        BAD_SIGNATURE,
+        EXPIRED,
+        /** Signed and unexpired, but issued before the user's token version was bumped. */
+        REVOKED
+    }
+
+    public static TokenVerification failed(Outcome outcome) {
+        return new TokenVerification(outcome, null);
+    }
+
+    public boolean isValid() {
+        return outcome == Outcome.VALID;
+    }
+}
@@ -0,0 +1,170 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.opticoretechnologies.identity.client.IdentityClaimNames;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationEvent;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationListener;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.text.ParseException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Current token version per user, for revoking all access tokens of a user at once.
+ * <p>
+ * Access tokens carry the user id ({@code uid}) and the user's {@code tokenVersion} at issue
+ * time ({@code tv}); a token whose version is below the current one is revoked. Bumping the
+ * version is one column in the user row update and one map entry here, however many tokens
+ * are out there.
+ * <p>
+ * Only users whose version was ever bumped are kept, so the map stays small. It is loaded when
+ * the context starts, updated locally after the bumping transaction commits and on the other
+ * nodes through {@link InvalidationType#TOKEN_VERSION} events, whose key is
+ * {@code userId:version}. On a resync the map is reloaded from the database.
+ */
+@Component
+@Slf4j
+public class TokenVersionRegistry implements InvalidationListener, SmartLifecycle {
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentMap<UUID, Integer> versions = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    @Autowired
+    public TokenVersionRegistry(DataSource dataSource, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        Gauge.builder("identity.token_version.users", versions, Map::size)
+                .description("Users whose access tokens were revoked by a token version bump")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A registry without a database, for tests and benchmarks: it starts empty and only learns
+     * versions through {@link #bump(User)} and invalidation events.
+     */
+    public TokenVersionRegistry() {
+        this.jdbcTemplate = null;
+    }
+
+    /**
+     * Whether an access token with these claims was issued at the user's current version.
+     * Tokens without {@code uid} or {@code tv} claims predate token versions and are accepted.
+     */
+    public boolean isCurrent(JWTClaimsSet claims) {
+        if (versions.isEmpty()) {
+            return true;
+        }
+        try {
+            String userId = claims.getStringClaim(IdentityClaimNames.USER_ID);
+            Integer tokenVersion = claims.getIntegerClaim(IdentityClaimNames.TOKEN_VERSION);
+            if (userId == null || tokenVersion == null) {
+                return true;
+            }
+            return isCurrent(UUID.fromString(userId), tokenVersion);
+        } catch (ParseException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public boolean isCurrent(UUID userId, int tokenVersion) {
+        Integer current = versions.get(userId);
+        return current == null || tokenVersion >= current;
+    }
+
+    /**
+     * Increments the user's token version, revoking every access token issued so far once the
+     * caller saves the user. The local map follows after the transaction commits; publishing
+     * the returned {@link #eventKey} on the invalidation bus informs the other nodes.
+     *
+     * @return the new version
+     */
+    public int bump(User user) {
+        int version = user.getTokenVersion() + 1;
+        user.setTokenVersion(version);
+        UUID userId = user.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    advance(userId, version);
+                }
+            });
+        } else {
+            advance(userId, version);
+        }
+        return version;
+    }
+
+    public static String eventKey(UUID userId, int version) {
+        return userId + ":" + version;
+    }
+
+    private void advance(UUID userId, int version) {
+        versions.merge(userId, version, Math::max);
+    }
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.type() != InvalidationType.TOKEN_VERSION) {
+            return;
+        }
+        int separator = event.key().lastIndexOf(':');
+        try {
+            advance(UUID.fromString(event.key().substring(0, separator)), Integer.parseInt(event.key().substring(separator + 1)));
+        } catch (RuntimeException e) {
+            log.debug("Ignoring malformed token version event '{}'", event.key());
+        }
+    }
+
+    @Override
+    public void onResync() {
+        load();
+    }
+
+    private void load() {
+        if (jdbcTemplate == null) {
+            return;
+        }
+        jdbcTemplate.query("SELECT id, token_version FROM _users WHERE token_version > 0",
+                (RowCallbackHandler) rs -> advance(rs.getObject(1, UUID.class), rs.getInt(2)));
+        log.info("Loaded token versions of {} users", versions.size());
+    }
+
+    @Override
+    public void start() {
+        load();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Loads before the web server starts, so no revoked token is accepted in between.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,269 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind tracking of {@code lastLoginAt} and {@code lastSeenAt} on users.
+ * <p>
+ * Logins and refreshes only record a timestamp in memory, coalesced per user ID, so a hot
+ * account costs one map entry instead of one row update (and row lock) per request. A
+ * background thread flushes the pending entries every {@code flush-interval-ms}: on PostgreSQL
+ * as one {@code UPDATE ... FROM (VALUES ...)} per chunk of rows, elsewhere as a JDBC batch.
+ * Timestamps only ever move forward, so flushes from several nodes can interleave freely.
+ * <p>
+ * Staleness is bounded by the flush interval, memory by {@code max-pending} users: once that
+ * many are waiting, a flush is triggered right away and activity of users not yet pending is
+ * dropped and counted until it completes. Pending entries are flushed on graceful shutdown.
+ * <p>
+ * Flushes deliberately leave the second-level cache alone: evicting and broadcasting every
+ * active user each interval would empty the user cache on every node. Cached entities therefore
+ * carry the timestamps they were loaded with, up to the cache lifetime old; callers that need
+ * current values read them with {@link com.opticoretechnologies.rest.identity.repository.UserRepository#findActivityById}.
+ */
+@Component
+@Slf4j
+public class UserActivityTracker implements SmartLifecycle {
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long flushIntervalMs;
+    private final int maxPending;
+
+    private final ConcurrentMap<UUID, Activity> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter dropped;
+    private final Counter flushed;
+    private volatile Boolean postgres;
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public UserActivityTracker(DataSource dataSource, MeterRegistry meterRegistry,
+                               @Value("${app.user-activity.enabled:true}") boolean enabled,
+                               @Value("${app.user-activity.flush-interval-ms:30000}") long flushIntervalMs,
+                               @Value("${app.user-activity.max-pending:100000}") int maxPending) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.enabled = enabled;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxPending = maxPending;
+        this.dropped = Counter.builder("identity.user_activity.dropped")
+                .description("Activity updates dropped because too many users were pending")
+                .register(meterRegistry);
+        this.flushed = Counter.builder("identity.user_activity.flushed")
+                .description("Users whose last-login/last-seen timestamps were written")
+                .register(meterRegistry);
+        Gauge.builder("identity.user_activity.pending", pending, Map::size)
+                .description("Users with activity waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a successful login, which also counts as being seen.
+     */
+    public void recordLogin(UUID userId) {
+        Instant now = Instant.now();
+        record(userId, new Activity(now, now));
+    }
+
+    /**
+     * Records activity that is not a login, such as a refresh token rotation.
+     */
+    public void recordSeen(UUID userId) {
+        record(userId, new Activity(null, Instant.now()));
+    }
+
+    private void record(UUID userId, Activity activity) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        if (pending.size() >= maxPending && !pending.containsKey(userId)) {
+            dropped.increment();
+            requestFlush();
+            return;
+        }
+        pending.merge(userId, activity, Activity::latest);
+    }
+
+    private void requestFlush() {
+        ScheduledExecutorService current = flusher;
+        if (current != null && running && flushRequested.compareAndSet(false, true)) {
+            current.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Writes all pending activity. Runs on the flusher thread; public for tests and shutdown.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            if (!pending.isEmpty()) {
+                flushPending();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        List<Map.Entry<UUID, Activity>> batch = new ArrayList<>(pending.size());
+        for (UUID userId : pending.keySet()) {
+            Activity activity = pending.remove(userId);
+            if (activity != null) {
+                batch.add(Map.entry(userId, activity));
+            }
+        }
+        try {
+            for (int from = 0; from < batch.size(); from += ROWS_PER_STATEMENT) {
+                List<Map.Entry<UUID, Activity>> chunk = batch.subList(from, Math.min(batch.size(), from + ROWS_PER_STATEMENT));
+                if (isPostgres()) {
+                    updateFromValues(chunk);
+                } else {
+                    updateBatch(chunk);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Put the activity back so the next flush retries it; newer timestamps win the merge.
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), Activity::latest));
+            throw e;
+        }
+        flushed.increment(batch.size());
+        log.debug("Flushed activity of {} users", batch.size());
+    }
+
+    private void updateFromValues(List<Map.Entry<UUID, Activity>> chunk) {
+        StringBuilder sql = new StringBuilder("UPDATE _users u SET "
+                + "last_login_at = GREATEST(u.last_login_at, v.last_login_at), "
+                + "last_seen_at = GREATEST(u.last_seen_at, v.last_seen_at) FROM (VALUES ");
+        List<Object> args = new ArrayList<>(chunk.size() * 3);
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(CAST(? AS uuid), CAST(? AS timestamptz), CAST(? AS timestamptz))");
+            Map.Entry<UUID, Activity> entry = chunk.get(i);
+            args.add(entry.getKey());
+            args.add(toTimestamp(entry.getValue().lastLoginAt()));
+            args.add(toTimestamp(entry.getValue().lastSeenAt()));
+        }
+        sql.append(") AS v(id, last_login_at, last_seen_at) WHERE u.id = v.id");
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private void updateBatch(List<Map.Entry<UUID, Activity>> chunk) {
+        jdbcTemplate.batchUpdate("UPDATE _users SET "
+                        + "last_login_at = COALESCE(GREATEST(last_login_at, ?), ?, last_login_at), "
+                        + "last_seen_at = COALESCE(GREATEST(last_seen_at, ?), ?, last_seen_at) WHERE id = ?",
+                chunk, chunk.size(), (ps, entry) -> {
+                    OffsetDateTime lastLoginAt = toTimestamp(entry.getValue().lastLoginAt());
+                    OffsetDateTime lastSeenAt = toTimestamp(entry.getValue().lastSeenAt());
+                    ps.setObject(1, lastLoginAt);
+                    ps.setObject(2, lastLoginAt);
+                    ps.setObject(3, lastSeenAt);
+                    ps.setObject(4, lastSeenAt);
+                    ps.setObject(5, entry.getKey());
+                });
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            postgres = result;
+        }
+        return Boolean.TRUE.equals(result);
+    }
+
+    private static OffsetDateTime toTimestamp(Instant instant) {
+        return instant == null ? null : OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush user activity, {} users still pending: {}", pending.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "user-activity-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+        flushQuietly();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so activity of requests still in flight
+     * during a graceful shutdown is written.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private record Activity(Instant lastLoginAt, Instant lastSeenAt) {
+
+        Activity latest(Activity other) {
+            return new Activity(max(lastLoginAt, other.lastLoginAt), max(lastSeenAt, other.lastSeenAt));
+        }
+
+        private static Instant max(Instant a, Instant b) {
+            if (a == null) {
+                return b;
+            }
+            return b == null || a.isAfter(b) ? a : b;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.opticoretechnologies.rest.identity.service;
 
+import com.opticoretechnologies.rest.identity.config.ReadYourWritesTracker;
+import com.opticoretechnologies.rest.identity.metrics.ServerTiming;
 import com.opticoretechnologies.rest.identity.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,11 +16,18 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class UserDetailsServiceImpl implements UserDetailsService {
     private final UserRepository userRepository;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsernameWithRoles(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+        long start = ServerTiming.start();
+        try {
+            return readYourWritesTracker.readAfterWrite(ReadYourWritesTracker.userKey(username),
+                            () -> userRepository.findByNaturalUsername(username))
+                    .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+        } finally {
+            ServerTiming.stop("user_load", start);
+        }
     }
 }
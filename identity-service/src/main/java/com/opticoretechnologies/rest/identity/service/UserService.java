@@ -0,0 +1,109 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.audit.AuthAuditEventType;
+import com.opticoretechnologies.rest.identity.audit.AuthAuditLog;
+import com.opticoretechnologies.rest.identity.breach.BreachedPasswordFilter;
+import com.opticoretechnologies.rest.identity.config.ReadYourWritesTracker;
+import com.opticoretechnologies.rest.identity.dto.AuthResponse;
+import com.opticoretechnologies.rest.identity.dto.UpdatePasswordRequest;
+import com.opticoretechnologies.rest.identity.dto.UpdateUsernameRequest;
+import com.opticoretechnologies.rest.identity.dto.UserInfo;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.exception.BadRequestException;
+import com.opticoretechnologies.rest.identity.exception.DuplicateResourceException;
+import com.opticoretechnologies.rest.identity.exception.ResourceNotFoundException;
+import com.opticoretechnologies.rest.identity.invalidation.CacheInvalidationBus;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationType;
+import com.opticoretechnologies.rest.identity.outbox.OutboxEventType;
+import com.opticoretechnologies.rest.identity.outbox.TransactionalOutbox;
+import com.opticoretechnologies.rest.identity.repository.RefreshTokenRepository;
+import com.opticoretechnologies.rest.identity.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+
+@Setter
+@RequiredArgsConstructor
+@Slf4j
+@Service
+public class UserService {
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtService jwtService;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final AuthAuditLog authAuditLog;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final BreachedPasswordFilter breachedPasswordFilter;
+    private final AvailabilityService availabilityService;
+    private final TransactionalOutbox outbox;
+
+
+    @Transactional
+    public AuthResponse updateUsername(String currentUsername, UpdateUsernameRequest request) throws DuplicateResourceException, UsernameNotFoundException {
+        if (userRepository.existsByUsername(request.getNewUsername())) {
+            throw new ResourceNotFoundException("USER_NAME" , request.getNewUsername() ,"is already taken");
+        }
+        User user = userRepository.findByUsername(currentUsername)
+                .orElseThrow(() -> new ResourceNotFoundException("USER_NAME", request.getNewUsername(),"is already taken"));
+        user.setUsername(request.getNewUsername());
+        // Tokens name the user by username; revoke them before someone else can take the old one.
+        int tokenVersion = tokenVersionRegistry.bump(user);
+        User updatedUser = userRepository.save(user);
+        readYourWritesTracker.recordWrite(ReadYourWritesTracker.userKey(currentUsername));
+        readYourWritesTracker.recordWrite(ReadYourWritesTracker.userKey(updatedUser.getUsername()));
+        availabilityService.recordTaken(updatedUser.getUsername(), null);
+        entityCacheEvictor.evictUserAfterCommit(updatedUser.getId(), true);
+        cacheInvalidationBus.publish(InvalidationType.USER_RENAMED, updatedUser.getId());
+        cacheInvalidationBus.publish(InvalidationType.USERNAME_TAKEN, updatedUser.getUsername());
+        cacheInvalidationBus.publish(InvalidationType.TOKEN_VERSION, TokenVersionRegistry.eventKey(updatedUser.getId(), tokenVersion));
+        authAuditLog.record(AuthAuditEventType.USERNAME_CHANGE, updatedUser, null);
+        outbox.record(OutboxEventType.USERNAME_CHANGED, updatedUser.getId(),
+                Map.of("oldUsername", currentUsername, "username", updatedUser.getUsername()));
+        String newAccessToken = jwtService.generateToken(updatedUser);
+        return AuthResponse.builder().accessToken(newAccessToken).tokenType("Bearer").userInfo(UserInfo.builder().username(updatedUser.getUsername()).email(updatedUser.getEmail()).build()).build();
+    }
+
+    /**
+     * Changes the password and revokes every session: refresh tokens are deleted and the token
+     * version is bumped, so access tokens issued before are rejected too. The caller's session
+     * continues with the returned token pair; as with login, the raw refresh token is carried in
+     * {@code tokenType}.
+     *
+     * @throws BadRequestException if the current password is wrong or the new one is breached
+     */
+    @Transactional
+    public AuthResponse updatePassword(String username, UpdatePasswordRequest request, String deviceInfo) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "username", username));
+        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+            throw new BadRequestException("Incorrect current password.");
+        }
+        breachedPasswordFilter.check(request.getNewPassword());
+        // Update password
+        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        int tokenVersion = tokenVersionRegistry.bump(user);
+        userRepository.save(user);
+        readYourWritesTracker.recordWrite(ReadYourWritesTracker.userKey(username));
+        entityCacheEvictor.evictUserAfterCommit(user.getId(), false);
+        cacheInvalidationBus.publish(InvalidationType.USER, user.getId());
+        cacheInvalidationBus.publish(InvalidationType.TOKEN_VERSION, TokenVersionRegistry.eventKey(user.getId(), tokenVersion));
+        // Revoke all old sessions
+        refreshTokenRepository.deleteByUser(user);
+        authAuditLog.record(AuthAuditEventType.PASSWORD_CHANGE, user, deviceInfo);
+        outbox.record(OutboxEventType.PASSWORD_CHANGED, user.getId(), Map.of("username", username));
+        // Create a new refresh token for the current session to keep it active
+        String rawRefreshToken = refreshTokenService.createRefreshToken(user, deviceInfo);
+        return AuthResponse.builder().accessToken(jwtService.generateToken(user)).tokenType(rawRefreshToken).build();
+    }
+}
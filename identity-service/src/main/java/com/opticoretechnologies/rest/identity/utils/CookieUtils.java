@@ -3,13 +3,11 @@ package com.opticoretechnologies.rest.identity.utils;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
 import org.springframework.stereotype.Component;
 
 @Component
-@Slf4j
 public class CookieUtils {
 
     @Value("${app.jwt.refresh-token-cookie-name}")
@@ -45,7 +43,6 @@ public class CookieUtils {
         if (cookies != null) {
             for (Cookie cookie : cookies) {
                 if (refreshTokenCookieName.equals(cookie.getName())) {
-                    log.info("Refresh token found for user: {}", cookie.getValue());
                     return cookie.getValue();
                 }
             }
@@ -0,0 +1,17 @@
+package com.opticoretechnologies.rest.identity.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+
+public final class RequestUtils {
+
+    private RequestUtils() {
+    }
+
+    /**
+     * Describes the calling device for refresh tokens and the audit log.
+     */
+    public static String deviceInfo(HttpServletRequest request) {
+        return "User-Agent: " + request.getHeader(HttpHeaders.USER_AGENT) + ", IP Address: " + request.getRemoteAddr();
+    }
+}
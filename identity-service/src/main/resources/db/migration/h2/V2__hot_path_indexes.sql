@@ -0,0 +1,9 @@
+-- H2 counterpart of postgresql/V2. H2 has neither partial nor covering indexes, so the active
+-- session index covers all tokens of a user.
+
+create index idx_refresh_token_user_unrevoked on _refresh_tokens (user_id, issued_at desc);
+drop index if exists idx_refresh_token_user_active;
+
+create index idx_refresh_token_expiry on _refresh_tokens (expiry_date);
+
+create index idx_user_roles_user_role on user_roles (user_id, role_id);
@@ -0,0 +1,17 @@
+-- Opaque access tokens ("reference tokens"): only the SHA-256 of the handle is stored. A handle
+-- is valid while unrevoked, unexpired and issued at the user's current token version.
+create table _access_handles (
+    id            uuid                        not null,
+    handle        varchar(64)                 not null unique,
+    user_id       uuid                        not null references _users,
+    token_version integer                     not null,
+    issued_at     timestamp(6) with time zone not null,
+    expires_at    timestamp(6) with time zone not null,
+    revoked       boolean                     not null,
+    primary key (id)
+);
+
+create index idx_access_handle_expiry on _access_handles (expires_at);
+
+-- Sessions remember the access token format they were started with, so refreshes keep it.
+alter table _refresh_tokens add column reference_access boolean not null default false;
@@ -0,0 +1,57 @@
+-- Schema as previously created by hibernate.ddl-auto=update. Databases that already have it are
+-- baselined at version 1 (spring.flyway.baseline-on-migrate) and start from V2.
+
+create table _users (
+    id                 uuid                        not null,
+    username           varchar(50)                 not null unique,
+    password_hash      varchar(255)                not null,
+    email              varchar(100)                not null unique,
+    enabled            boolean                     not null,
+    account_non_locked boolean                     not null,
+    created_at         timestamp(6) with time zone not null,
+    updated_at         timestamp(6) with time zone not null,
+    last_login_at      timestamp(6) with time zone,
+    last_seen_at       timestamp(6) with time zone,
+    primary key (id)
+);
+
+create table _roles (
+    id          uuid                        not null,
+    name        varchar(50)                 not null unique,
+    description varchar(255),
+    created_at  timestamp(6) with time zone not null,
+    updated_at  timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create table user_roles (
+    role_id uuid not null references _roles,
+    user_id uuid not null references _users,
+    primary key (role_id, user_id)
+);
+
+create table _refresh_tokens (
+    id          uuid                        not null,
+    token       varchar(255)                not null unique,
+    user_id     uuid                        not null references _users,
+    issued_at   timestamp(6) with time zone not null,
+    expiry_date timestamp(6) with time zone not null,
+    revoked     boolean                     not null,
+    device_info varchar(255),
+    primary key (id)
+);
+
+create index idx_refresh_token_user_active on _refresh_tokens (user_id, revoked, expiry_date);
+
+create table _auth_audit_log (
+    id          uuid                        not null,
+    event_type  varchar(32)                 not null,
+    user_id     uuid,
+    username    varchar(255),
+    device_info varchar(512),
+    occurred_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_auth_audit_user_time on _auth_audit_log (user_id, occurred_at);
+create index idx_auth_audit_time on _auth_audit_log (occurred_at);
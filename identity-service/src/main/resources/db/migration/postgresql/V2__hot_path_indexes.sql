@@ -0,0 +1,22 @@
+-- Indexes for the query shapes on the hot paths.
+--
+-- Baselined databases run this against live tables, so every index is built and dropped
+-- concurrently: logins and refreshes keep writing while it runs. That cannot happen inside a
+-- transaction (see the .conf file next to this script), nor while Flyway's transactional lock
+-- is held open on another connection (spring.flyway.postgresql.transactional-lock is off for
+-- that reason). If a build fails, drop the INVALID index it leaves behind before repairing and
+-- rerunning the migration.
+
+-- Active sessions of a user (session listing and cap enforcement), newest first. Revoked tokens
+-- are never searched this way and make up most of the table, so they are left out of the index.
+create index concurrently idx_refresh_token_user_unrevoked on _refresh_tokens (user_id, issued_at desc)
+    include (expiry_date)
+    where revoked = false;
+drop index concurrently if exists idx_refresh_token_user_active;
+
+-- Range scans of expired tokens when purging.
+create index concurrently idx_refresh_token_expiry on _refresh_tokens (expiry_date);
+
+-- findByUsernameWithRoles and the roles collection load walk user_roles by user_id; the primary
+-- key leads with role_id. Both columns are in the index, so the join is an index-only scan.
+create index concurrently idx_user_roles_user_role on user_roles (user_id, role_id);
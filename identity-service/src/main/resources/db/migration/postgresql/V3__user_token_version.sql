@@ -0,0 +1,2 @@
+-- Bumped to revoke every access token of a user at once; carried in tokens as the tv claim.
+alter table _users add column token_version integer not null default 0;
@@ -0,0 +1,15 @@
+-- Transactional outbox: user lifecycle events are inserted in the transaction that caused them
+-- and deleted by the relay once the sink has accepted them. The id orders events as committed
+-- per writer; available_at postpones events whose delivery failed.
+create table _outbox_events (
+    id           bigint generated by default as identity,
+    event_type   varchar(32)                 not null,
+    aggregate_id uuid                        not null,
+    payload      varchar(4000)               not null,
+    created_at   timestamp(6) with time zone not null,
+    available_at timestamp(6) with time zone not null,
+    attempts     integer                     not null default 0,
+    primary key (id)
+);
+
+create index idx_outbox_available on _outbox_events (available_at, id);
@@ -0,0 +1,158 @@
+package com.opticoretechnologies.rest.identity.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Startup benchmark for the fast-startup build. Launches the extracted application jar
+ * {@code --runs} times per mode and measures time-to-first-request: from process start until
+ * {@code --path} first answers 200. Modes:
+ * <ul>
+ *     <li>{@code baseline}: plain {@code java -jar}, reflection-based context startup;</li>
+ *     <li>{@code fast}: Spring AOT initializers plus the class-data archive from the training
+ *     run ({@code -XX:SharedArchiveFile}).</li>
+ * </ul>
+ * The service starts for real, so it needs its database; pass comma-separated application
+ * arguments to point it elsewhere, e.g. {@code --app-args=--spring.datasource.url=...}.
+ * Min/median/max per mode go to {@code --output} as JSON.
+ * <pre>
+ * mvn -Pfast-startup verify -Dstartup.args="--runs=5"
+ * </pre>
+ */
+public final class StartupBenchmark {
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Path directory = Path.of(options.getOrDefault("dir", "target/fast-startup"));
+        String jar = options.getOrDefault("jar", "rest-identity-service-0.0.1-SNAPSHOT.jar");
+        int runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+        String path = options.getOrDefault("path", "/api/auth/.well-known/jwks.json");
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "120")));
+        List<String> appArgs = split(options.getOrDefault("app-args", ""));
+        Path output = Path.of(options.getOrDefault("output", "target/startup-result.json"));
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("baseline", List.of());
+        modes.put("fast", List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true"));
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            List<Long> millis = new ArrayList<>(runs);
+            for (int run = 1; run <= runs; run++) {
+                long elapsed = timeToFirstRequest(http, directory, jar, mode.getValue(), appArgs, path, timeout,
+                        directory.resolve("startup-" + mode.getKey() + "-" + run + ".log"));
+                System.out.printf("%-8s run %d: %d ms to first request%n", mode.getKey(), run, elapsed);
+                millis.add(elapsed);
+            }
+            report.put(mode.getKey(), summarize(millis));
+        }
+
+        String json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, json);
+        System.out.println(json);
+        System.out.println("Report written to " + output.toAbsolutePath());
+    }
+
+    private static long timeToFirstRequest(HttpClient http, Path directory, String jar, List<String> jvmArgs,
+                                           List<String> appArgs, String path, Duration timeout, Path log)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=" + port);
+        command.addAll(appArgs);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Service exited with " + process.exitValue() + " before answering, see " + log);
+                }
+                try {
+                    if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // Not listening yet.
+                }
+                LockSupport.parkNanos(POLL_INTERVAL_NANOS);
+            }
+            throw new IllegalStateException("No 200 from " + request.uri() + " within " + timeout + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static Map<String, Object> summarize(List<Long> millis) {
+        List<Long> sorted = millis.stream().sorted().toList();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("runs", sorted.size());
+        summary.put("minMs", sorted.getFirst());
+        summary.put("medianMs", sorted.get(sorted.size() / 2));
+        summary.put("maxMs", sorted.getLast());
+        return summary;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return values;
+    }
+
+    private static List<String> split(String value) {
+        return value.isBlank() ? List.of() : Arrays.asList(value.trim().split(","));
+    }
+}
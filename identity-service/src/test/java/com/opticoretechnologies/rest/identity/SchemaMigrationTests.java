@@ -0,0 +1,48 @@
+package com.opticoretechnologies.rest.identity;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The schema comes from the Flyway migrations and Hibernate only validates it; the context
+ * would not start if the entities and the migrations disagreed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SchemaMigrationTests {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void everyMigrationIsApplied() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().applied())
+                .extracting(migration -> migration.getVersion() == null ? null : migration.getVersion().getVersion())
+                .filteredOn(Objects::nonNull)
+                .startsWith("1", "2", "3");
+    }
+
+    @Test
+    void hotPathIndexesExist() {
+        assertThat(indexes("_refresh_tokens"))
+                .contains("idx_refresh_token_user_unrevoked", "idx_refresh_token_expiry")
+                .doesNotContain("idx_refresh_token_user_active");
+        assertThat(indexes("user_roles")).contains("idx_user_roles_user_role");
+    }
+
+    private List<String> indexes(String table) {
+        return jdbcTemplate.queryForList(
+                "select lower(index_name) from information_schema.indexes where lower(table_name) = ?", String.class, table);
+    }
+}
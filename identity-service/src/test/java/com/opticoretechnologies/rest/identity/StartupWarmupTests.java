@@ -0,0 +1,43 @@
+package com.opticoretechnologies.rest.identity;
+
+import com.opticoretechnologies.rest.identity.config.StartupWarmup;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.warmup.enabled=true",
+        "app.warmup.iterations=25",
+        "app.warmup.threads=2",
+        "app.warmup.password-iterations=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StartupWarmupTests {
+    @Autowired
+    private StartupWarmup warmup;
+    @Autowired
+    private ApplicationAvailability availability;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void warmupRunsBeforeTheServiceReportsReady() throws Exception {
+        assertThat(warmup.completedIterations()).isEqualTo(50);
+        assertThat(warmup.durationMs()).isNotNegative();
+        assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+}
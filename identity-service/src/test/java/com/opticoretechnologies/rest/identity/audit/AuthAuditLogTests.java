@@ -0,0 +1,79 @@
+package com.opticoretechnologies.rest.identity.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthAuditLogTests {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<List<AuthAuditEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void fullBufferDropsAndCountsInsteadOfBlocking() {
+        AuthAuditLog auditLog = new AuthAuditLog(batch -> batches.add(List.copyOf(batch)), registry, true, 16, 4, 60_000);
+
+        for (int i = 0; i < 20; i++) {
+            auditLog.record(AuthAuditEventType.LOGIN_FAILURE, null, "user-" + i, null);
+        }
+
+        assertThat(count("accepted")).isEqualTo(16);
+        assertThat(count("dropped")).isEqualTo(4);
+        assertThat(registry.get("identity.audit.backpressure").counter().count()).isEqualTo(5);
+        assertThat(registry.get("identity.audit.buffer.size").gauge().value()).isEqualTo(16);
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    void writesFullBatchesWithoutWaitingForTheIntervalAndFlushesTheRestOnStop() {
+        AuthAuditLog auditLog = new AuthAuditLog(batch -> batches.add(List.copyOf(batch)), registry, true, 64, 4, 60_000);
+        auditLog.start();
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < 10; i++) {
+            auditLog.record(AuthAuditEventType.LOGIN_SUCCESS, userId, "alice", "curl");
+        }
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (batches.size() < 2 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(batches).hasSizeGreaterThanOrEqualTo(2).allSatisfy(batch -> assertThat(batch).hasSize(4));
+
+        auditLog.stop();
+
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(10);
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(4));
+        assertThat(registry.get("identity.audit.written").counter().count()).isEqualTo(10);
+    }
+
+    @Test
+    void failedBatchIsRetriedOnceThenCountedAsLost() {
+        List<Integer> attempts = Collections.synchronizedList(new ArrayList<>());
+        AuthAuditLog auditLog = new AuthAuditLog(batch -> {
+            attempts.add(batch.size());
+            throw new IllegalStateException("database down");
+        }, registry, true, 64, 2, 60_000);
+        auditLog.start();
+        auditLog.record(AuthAuditEventType.LOGOUT, null, "bob", null);
+        auditLog.record(AuthAuditEventType.LOGOUT, null, "bob", null);
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (registry.get("identity.audit.write.failed").counter().count() < 2 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        auditLog.stop();
+
+        assertThat(attempts).containsExactly(2, 2);
+        assertThat(registry.get("identity.audit.write.failed").counter().count()).isEqualTo(2);
+        assertThat(registry.get("identity.audit.written").counter().count()).isZero();
+    }
+
+    private double count(String result) {
+        return registry.get("identity.audit.events").tag("result", result).counter().count();
+    }
+}
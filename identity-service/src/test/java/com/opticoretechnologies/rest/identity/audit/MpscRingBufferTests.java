@@ -0,0 +1,69 @@
+package com.opticoretechnologies.rest.identity.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscRingBufferTests {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwoAndOfferFailsWhenFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(5);
+        assertThat(buffer.capacity()).isEqualTo(8);
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(8)).isFalse();
+        assertThat(buffer.size()).isEqualTo(8);
+
+        assertThat(buffer.poll()).isZero();
+        assertThat(buffer.offer(8)).isTrue();
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 100)).isEqualTo(8);
+        assertThat(drained).containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void concurrentProducersLoseAndDuplicateNothing() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+
+        Set<Integer> received = new HashSet<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(producers)) {
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(base + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            while (received.size() < producers * perProducer) {
+                Integer element = buffer.poll();
+                if (element == null) {
+                    Thread.onSpinWait();
+                } else {
+                    assertThat(received.add(element)).isTrue();
+                }
+            }
+        }
+        assertThat(buffer.poll()).isNull();
+    }
+}
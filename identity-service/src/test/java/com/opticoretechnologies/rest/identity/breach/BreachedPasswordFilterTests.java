@@ -0,0 +1,59 @@
+package com.opticoretechnologies.rest.identity.breach;
+
+import com.opticoretechnologies.rest.identity.exception.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BreachedPasswordFilterTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    void breachedPasswordsAreFoundAndFalsePositivesAreRare() throws Exception {
+        List<String> breached = IntStream.range(0, 10_000).mapToObj(i -> "breached-" + i).toList();
+        Path input = Files.write(directory.resolve("breached.txt"), breached.stream()
+                .map(password -> HexFormat.of().withUpperCase().formatHex(BreachedPasswordFilter.sha1(password)) + ":42")
+                .toList());
+        Path output = directory.resolve("breached.bloom");
+        assertThat(BloomFilterFileBuilder.build(input, output, breached.size(), 0.001, false)).isEqualTo(breached.size());
+
+        BreachedPasswordFilter filter = new BreachedPasswordFilter(output.toString(), new SimpleMeterRegistry());
+        assertThat(breached).allMatch(filter::isBreached);
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.isBreached("fresh-" + i)).count();
+        assertThat(falsePositives).isLessThan(50);
+
+        assertThatThrownBy(() -> filter.check("breached-7")).isInstanceOf(BadRequestException.class);
+        filter.check("correct horse battery staple");
+    }
+
+    @Test
+    void replacedFileIsReloaded() throws Exception {
+        Path output = directory.resolve("breached.bloom");
+        BloomFilterFileBuilder.build(Files.write(directory.resolve("v1.txt"), List.of("password1")), output, 1, 0.001, true);
+        BreachedPasswordFilter filter = new BreachedPasswordFilter(output.toString(), new SimpleMeterRegistry());
+        assertThat(filter.isBreached("password1")).isTrue();
+        assertThat(filter.isBreached("letmein123")).isFalse();
+
+        BloomFilterFileBuilder.build(Files.write(directory.resolve("v2.txt"), List.of("letmein123")), output, 1, 0.001, true);
+        filter.reloadIfChanged();
+
+        assertThat(filter.isBreached("letmein123")).isTrue();
+        assertThat(filter.isBreached("password1")).isFalse();
+    }
+
+    @Test
+    void withoutFileNothingIsScreened() {
+        BreachedPasswordFilter filter = new BreachedPasswordFilter(directory.resolve("missing.bloom").toString(), new SimpleMeterRegistry());
+        assertThat(filter.isBreached("password1")).isFalse();
+    }
+}
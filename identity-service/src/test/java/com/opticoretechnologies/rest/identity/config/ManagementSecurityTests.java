@@ -0,0 +1,37 @@
+package com.opticoretechnologies.rest.identity.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ManagementSecurityTests {
+    private static final String HEADER = "X-Metrics-Secret";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void onlyHealthIsOpenToAnonymousCallers() throws Exception {
+        mockMvc.perform(get("/actuator/health/liveness")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/info")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header(HEADER, "wrong")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void scrapersWithTheSecretGetTheMetrics() throws Exception {
+        // tests run without metric exporters, so /actuator/prometheus itself is not registered here
+        mockMvc.perform(get("/actuator/metrics").header(HEADER, "metrics-test-secret"))
+                .andExpect(status().isOk());
+    }
+}
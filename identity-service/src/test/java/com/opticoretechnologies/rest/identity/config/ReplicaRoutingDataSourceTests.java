@@ -0,0 +1,134 @@
+package com.opticoretechnologies.rest.identity.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against two in-memory H2 databases: the regular test database acts as the primary
+ * and {@code identity_replica} as the replica. {@code DATABASE()} tells them apart.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=jdbc:h2:mem:identity_replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.lag-query=SELECT COALESCE(MAX(lag_ms), 0) FROM replica_lag",
+        "app.datasource.replica.lag-check-interval-ms=3600000",
+        "app.datasource.replica.max-lag-ms=1000",
+        "app.datasource.replica.read-your-writes-window-ms=60000"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingDataSourceTests {
+    private static final String CURRENT_DATABASE = "SELECT DATABASE()";
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcTemplate replicaJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        replicaJdbcTemplate.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_ms BIGINT)");
+        setReplicaLag(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        setReplicaLag(0);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        assertThat(currentDatabase(true)).isEqualToIgnoringCase("identity_replica");
+        assertThat(currentDatabase(false)).isEqualToIgnoringCase("identity_db");
+    }
+
+    @Test
+    void writeAfterReadInSameEntityManagerUsesPrimary() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            assertThat(nativeCurrentDatabase(entityManager, true)).isEqualToIgnoringCase("identity_replica");
+            assertThat(nativeCurrentDatabase(entityManager, false)).isEqualToIgnoringCase("identity_db");
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    @Test
+    void readsWithinReadYourWritesWindowGoToPrimary() {
+        String key = ReadYourWritesTracker.userKey("ryw-user");
+        readYourWritesTracker.recordWrite(key);
+
+        String pinned = readOnly().execute(status -> readYourWritesTracker.readAfterWrite(key,
+                () -> jdbcTemplate.queryForObject(CURRENT_DATABASE, String.class)));
+        String other = readOnly().execute(status -> readYourWritesTracker.readAfterWrite(
+                ReadYourWritesTracker.userKey("someone-else"),
+                () -> jdbcTemplate.queryForObject(CURRENT_DATABASE, String.class)));
+
+        assertThat(pinned).isEqualToIgnoringCase("identity_db");
+        assertThat(other).isEqualToIgnoringCase("identity_replica");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        setReplicaLag(5_000);
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(currentDatabase(true)).isEqualToIgnoringCase("identity_db");
+
+        setReplicaLag(0);
+        assertThat(lagMonitor.isReplicaUsable()).isTrue();
+        assertThat(currentDatabase(true)).isEqualToIgnoringCase("identity_replica");
+    }
+
+    private void setReplicaLag(long lagMs) {
+        replicaJdbcTemplate.update("DELETE FROM replica_lag");
+        replicaJdbcTemplate.update("INSERT INTO replica_lag (lag_ms) VALUES (?)", lagMs);
+        lagMonitor.checkLag();
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate template = readOnly ? readOnly() : new TransactionTemplate(transactionManager);
+        return template.execute(status -> jdbcTemplate.queryForObject(CURRENT_DATABASE, String.class));
+    }
+
+    private String nativeCurrentDatabase(EntityManager entityManager, boolean readOnly) {
+        TransactionTemplate template = readOnly ? readOnly() : new TransactionTemplate(transactionManager);
+        return template.execute(status -> (String) entityManager.createNativeQuery(CURRENT_DATABASE).getSingleResult());
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+}
@@ -0,0 +1,55 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import com.opticoretechnologies.rest.identity.audit.AuthAuditLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthAuditTrailTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private AuthAuditLog authAuditLog;
+
+    @Test
+    void loginRefreshFailureAndLogoutAreWrittenInTheBackground() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("audited-user");
+        AuthClient.Tokens tokens = client.login("audited-user");
+        AuthClient.Tokens refreshed = client.refresh(tokens.refreshCookie());
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("User-Agent", "audit-test")
+                        .content("{\"username\":\"audited-user\",\"password\":\"wrong\"}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/logout").cookie(refreshed.refreshCookie()))
+                .andExpect(status().isOk());
+
+        // Stopping drains the buffer synchronously; start again for the tests that follow.
+        authAuditLog.stop();
+        authAuditLog.start();
+
+        List<String> events = jdbcTemplate.queryForList(
+                "SELECT event_type FROM _auth_audit_log WHERE username = ? ORDER BY occurred_at", String.class, "audited-user");
+        assertThat(events).containsExactly("LOGIN_SUCCESS", "REFRESH_SUCCESS", "LOGIN_FAILURE", "LOGOUT");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT device_info FROM _auth_audit_log WHERE username = ? AND event_type = 'LOGIN_FAILURE'",
+                String.class, "audited-user")).contains("User-Agent: audit-test");
+    }
+}
@@ -0,0 +1,83 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import jakarta.servlet.http.Cookie;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * MockMvc shortcuts for the auth endpoints, shared by the controller tests.
+ */
+final class AuthClient {
+    static final String PASSWORD = "password123";
+    static final String REFRESH_COOKIE = "refresh-token";
+    static final String INTROSPECTION_HEADER = "X-Introspection-Secret";
+    static final String INTROSPECTION_SECRET = "introspection-test-secret";
+
+    private final MockMvc mockMvc;
+
+    AuthClient(MockMvc mockMvc) {
+        this.mockMvc = mockMvc;
+    }
+
+    record Tokens(String accessToken, Cookie refreshCookie) {
+    }
+
+    void register(String username) throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"email\":\"" + username
+                                + "@example.com\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    Tokens login(String username) throws Exception {
+        return login(username, null);
+    }
+
+    Tokens login(String username, Cookie refreshCookie) throws Exception {
+        return login(username, refreshCookie, null);
+    }
+
+    Tokens loginFrom(String username, String userAgent) throws Exception {
+        return login(username, null, userAgent);
+    }
+
+    Tokens loginWithFormat(String username, String tokenFormat) throws Exception {
+        return tokens(mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD
+                                + "\",\"tokenFormat\":\"" + tokenFormat + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn());
+    }
+
+    private Tokens login(String username, Cookie refreshCookie, String userAgent) throws Exception {
+        MockHttpServletRequestBuilder request = post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}");
+        if (refreshCookie != null) {
+            request.cookie(refreshCookie);
+        }
+        if (userAgent != null) {
+            request.header("User-Agent", userAgent);
+        }
+        return tokens(mockMvc.perform(request).andExpect(status().isOk()).andReturn());
+    }
+
+    Tokens refresh(Cookie refreshCookie) throws Exception {
+        return tokens(mockMvc.perform(post("/api/auth/refresh").cookie(refreshCookie))
+                .andExpect(status().isOk())
+                .andReturn());
+    }
+
+    private static Tokens tokens(MvcResult result) throws Exception {
+        String accessToken = JsonPath.read(result.getResponse().getContentAsString(), "$.accessToken");
+        return new Tokens(accessToken, result.getResponse().getCookie(REFRESH_COOKIE));
+    }
+}
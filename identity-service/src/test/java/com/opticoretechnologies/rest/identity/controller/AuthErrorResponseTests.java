@@ -0,0 +1,45 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class AuthErrorResponseTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void wrongPasswordIsUnauthorizedAndLoggedWithoutStackTrace(CapturedOutput output) throws Exception {
+        new AuthClient(mockMvc).register("wrong-password-user");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"username\":\"wrong-password-user\",\"password\":\"not-the-password\"}"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        assertThat(output.getOut()).contains("InvalidCredentialsException").doesNotContain("\tat ");
+    }
+
+    @Test
+    void invalidRefreshTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/auth/refresh").cookie(new jakarta.servlet.http.Cookie("refresh-token", "bogus")))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,120 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import jakarta.servlet.http.Cookie;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Drives the login, refresh, JWKS and logout flows concurrently on virtual threads while a JFR
+ * stream records {@code jdk.VirtualThreadPinned}, and fails if any virtual thread parked while
+ * pinned to its carrier (a monitor held or a native frame on the stack).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "virtual-threads"})
+class AuthFlowVirtualThreadPinningTests {
+    private static final int USERS = 20;
+    private static final int REFRESHES_PER_USER = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void authFlowsDoNotPinVirtualThreads() throws Exception {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String username = "vt-user-" + i;
+            register(username);
+            usernames.add(username);
+        }
+
+        List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            recording.startAsync();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> flows = new ArrayList<>();
+                for (String username : usernames) {
+                    flows.add(executor.submit(() -> {
+                        runFlow(username);
+                        return null;
+                    }));
+                }
+                for (Future<?> flow : flows) {
+                    flow.get();
+                }
+            }
+            recording.stop();
+        }
+
+        assertThat(pinned)
+                .withFailMessage(() -> "Virtual threads were pinned:\n" + describe(pinned))
+                .isEmpty();
+    }
+
+    private void runFlow(String username) throws Exception {
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Cookie refreshCookie = login.getResponse().getCookie("refresh-token");
+
+        for (int i = 0; i < REFRESHES_PER_USER; i++) {
+            MvcResult refresh = mockMvc.perform(post("/api/auth/refresh").cookie(refreshCookie))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            refreshCookie = refresh.getResponse().getCookie("refresh-token");
+            mockMvc.perform(get("/api/auth/.well-known/jwks.json")).andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/api/auth/logout").cookie(refreshCookie)).andExpect(status().isOk());
+    }
+
+    private void register(String username) throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"email\":\"" + username
+                                + "@example.com\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static String describe(List<RecordedEvent> events) {
+        return events.stream()
+                .map(event -> event.getStackTrace() == null ? "<no stack trace>" : event.getStackTrace().getFrames().stream()
+                        .limit(25)
+                        .map(AuthFlowVirtualThreadPinningTests::describe)
+                        .collect(Collectors.joining("\n    ", "  pinned at:\n    ", "")))
+                .distinct()
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationEvent;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationType;
+import com.opticoretechnologies.rest.identity.service.AvailabilityService;
+import com.opticoretechnologies.rest.identity.support.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AvailabilityTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Test
+    void freeNamesAreAnsweredWithoutTheDatabase() throws Exception {
+        await().atMost(10, TimeUnit.SECONDS).until(availabilityService::isReady);
+        new AuthClient(mockMvc).register("taken-name");
+        SqlStatementCounter counter = new SqlStatementCounter(entityManagerFactory);
+
+        SqlStatementCounter.Result free = counter.measure(() -> mockMvc.perform(get("/api/auth/availability")
+                        .param("username", "free-name")
+                        .param("email", "free-name@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(true))
+                .andExpect(jsonPath("$.email").value(true)));
+        assertThat(free.statements()).as(free.toString()).isZero();
+
+        mockMvc.perform(get("/api/auth/availability").param("username", " Taken-Name "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(true))
+                .andExpect(jsonPath("$.email").doesNotExist());
+        mockMvc.perform(get("/api/auth/availability")
+                        .param("username", "taken-name")
+                        .param("email", "taken-name@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(false))
+                .andExpect(jsonPath("$.email").value(false));
+        mockMvc.perform(get("/api/auth/availability")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void namesTakenOnAnotherNodeAreRecordedFromTheEventAlone() throws Exception {
+        await().atMost(10, TimeUnit.SECONDS).until(availabilityService::isReady);
+        SqlStatementCounter counter = new SqlStatementCounter(entityManagerFactory);
+
+        SqlStatementCounter.Result recorded = counter.measure(() -> {
+            availabilityService.onInvalidation(new InvalidationEvent(InvalidationType.USERNAME_TAKEN, "remote-name"));
+            availabilityService.onInvalidation(new InvalidationEvent(InvalidationType.EMAIL_TAKEN, "remote-name@example.com"));
+        });
+        assertThat(recorded.statements()).as(recorded.toString()).isZero();
+
+        SqlStatementCounter.Result checked = counter.measure(() -> mockMvc.perform(get("/api/auth/availability")
+                        .param("username", "remote-name")
+                        .param("email", "remote-name@example.com"))
+                .andExpect(status().isOk()));
+        assertThat(checked.statements()).as("the filters no longer rule the names out").isEqualTo(2);
+    }
+}
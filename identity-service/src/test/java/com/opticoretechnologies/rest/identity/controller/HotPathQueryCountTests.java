@@ -0,0 +1,128 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import com.opticoretechnologies.rest.identity.service.EntityCacheEvictor;
+import com.opticoretechnologies.rest.identity.support.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets for the request hot paths. Budgets are checked with cold entity caches,
+ * i.e. what a freshly started node or a cache miss pays, so a lazy load that the second-level
+ * cache would otherwise hide still fails the build. Raise a budget only together with a reason.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HotPathQueryCountTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityCacheEvictor entityCacheEvictor;
+
+    private SqlStatementCounter counter;
+    private AuthClient authClient;
+
+    @BeforeEach
+    void setUp() {
+        counter = new SqlStatementCounter(entityManagerFactory);
+        authClient = new AuthClient(mockMvc);
+    }
+
+    @Test
+    void refreshIsOneLookupPlusRotation() throws Exception {
+        authClient.register("qc-refresh");
+        AuthClient.Tokens tokens = authClient.login("qc-refresh");
+        entityCacheEvictor.evictAllUsers();
+
+        AtomicReference<AuthClient.Tokens> refreshed = new AtomicReference<>();
+        SqlStatementCounter.Result result = counter.measure(() -> refreshed.set(authClient.refresh(tokens.refreshCookie())));
+
+        // select token with user and roles, revoke the old token, insert the new one
+        assertThat(result.statements()).as(result.toString()).isLessThanOrEqualTo(3);
+        assertThat(result.entityFetches()).as(result.toString()).isZero();
+        assertThat(result.collectionFetches()).as(result.toString()).isZero();
+
+        // The rotated token must really be revoked.
+        mockMvc.perform(post("/api/auth/introspect")
+                        .header(AuthClient.INTROSPECTION_HEADER, AuthClient.INTROSPECTION_SECRET)
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("token", tokens.refreshCookie().getValue()))
+                .andExpect(jsonPath("$.active").value(false));
+        assertThat(refreshed.get().refreshCookie().getValue()).isNotEqualTo(tokens.refreshCookie().getValue());
+
+        // A duplicate within the grace window gets the same pair without touching the database.
+        AtomicReference<AuthClient.Tokens> duplicate = new AtomicReference<>();
+        SqlStatementCounter.Result duplicateResult = counter.measure(() -> duplicate.set(authClient.refresh(tokens.refreshCookie())));
+        assertThat(duplicateResult.statements()).as(duplicateResult.toString()).isZero();
+        assertThat(duplicate.get().accessToken()).isEqualTo(refreshed.get().accessToken());
+        assertThat(duplicate.get().refreshCookie().getValue()).isEqualTo(refreshed.get().refreshCookie().getValue());
+    }
+
+    @Test
+    void loginWithExistingRefreshCookieDoesNotLoadUserLazily() throws Exception {
+        authClient.register("qc-relogin");
+        AuthClient.Tokens tokens = authClient.login("qc-relogin");
+        entityCacheEvictor.evictAllUsers();
+
+        SqlStatementCounter.Result result = counter.measure(() -> authClient.login("qc-relogin", tokens.refreshCookie()));
+
+        assertThat(result.statements()).as(result.toString()).isLessThanOrEqualTo(3);
+        assertThat(result.entityFetches()).as(result.toString()).isZero();
+        assertThat(result.collectionFetches()).as(result.toString()).isZero();
+    }
+
+    @Test
+    void passwordLogin() throws Exception {
+        authClient.register("qc-login");
+        entityCacheEvictor.evictAllUsers();
+
+        SqlStatementCounter.Result result = counter.measure(() -> authClient.login("qc-login"));
+
+        // user by username, its roles, the user's active sessions for the session cap,
+        // insert the refresh token
+        assertThat(result.statements()).as(result.toString()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void logout() throws Exception {
+        authClient.register("qc-logout");
+        AuthClient.Tokens tokens = authClient.login("qc-logout");
+
+        SqlStatementCounter.Result result = counter.measure(() ->
+                mockMvc.perform(post("/api/auth/logout").cookie(tokens.refreshCookie())).andExpect(status().isOk()));
+
+        // lookup, conditional revoke and the SESSION_REVOKED outbox row
+        assertThat(result.statements()).as(result.toString()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void bearerRequestWithWarmCacheIssuesNoSql() throws Exception {
+        authClient.register("qc-me");
+        AuthClient.Tokens tokens = authClient.login("qc-me");
+        mockMvc.perform(get("/api/user/me").header("Authorization", "Bearer " + tokens.accessToken()))
+                .andExpect(status().isOk());
+
+        SqlStatementCounter.Result result = counter.measure(() ->
+                mockMvc.perform(get("/api/user/me").header("Authorization", "Bearer " + tokens.accessToken()))
+                        .andExpect(status().isOk()));
+
+        assertThat(result.statements()).as(result.toString()).isZero();
+    }
+}
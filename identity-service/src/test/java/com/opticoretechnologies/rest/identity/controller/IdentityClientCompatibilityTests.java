@@ -0,0 +1,57 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import com.opticoretechnologies.identity.client.IdentityTokenVerifier;
+import com.opticoretechnologies.identity.client.JwksCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The identity client verifies tokens of this service against its published keys and role
+ * dictionary, with compact roles switched on so both claim forms are covered.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.security.jwt.compact-roles=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdentityClientCompatibilityTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void clientVerifiesIssuedTokensAndRevalidatesWithETags() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("client-verified-user");
+        String accessToken = client.login("client-verified-user").accessToken();
+
+        URI base = URI.create("http://localhost:" + port + "/api/auth/.well-known/");
+        try (JwksCache cache = new JwksCache(HttpClient.newHttpClient(), base.resolve("jwks.json"),
+                base.resolve("roles.json"), Duration.ofHours(1), Duration.ofSeconds(30), Duration.ofSeconds(5))) {
+            assertThat(cache.refresh()).isTrue();
+            IdentityTokenVerifier verifier = new IdentityTokenVerifier(cache, Duration.ZERO, Clock.systemUTC());
+
+            IdentityTokenVerifier.Verification verification = verifier.verify(accessToken);
+
+            assertThat(verification.isValid()).isTrue();
+            assertThat(verification.claims().subject()).isEqualTo("client-verified-user");
+            assertThat(verification.claims().email()).isEqualTo("client-verified-user@example.com");
+            assertThat(verification.claims().roles()).containsExactly("ROLE_USER");
+
+            assertThat(cache.refresh()).isTrue();
+            assertThat(cache.notModifiedCount()).isEqualTo(2);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationEvent;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationType;
+import com.opticoretechnologies.rest.identity.repository.AccessHandleRepository;
+import com.opticoretechnologies.rest.identity.service.ReferenceTokenCache;
+import com.opticoretechnologies.rest.identity.service.TokenHashingService;
+import com.opticoretechnologies.rest.identity.support.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.security.reference-tokens.required-paths=/api/user/sessions/**")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReferenceTokenTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private AccessHandleRepository accessHandleRepository;
+    @Autowired
+    private ReferenceTokenCache referenceTokenCache;
+    @Autowired
+    private TokenHashingService tokenHashingService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void logoutRevokesTheReferenceTokenAtOnce() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("reference-user");
+        AuthClient.Tokens tokens = client.loginWithFormat("reference-user", "reference");
+        assertThat(tokens.accessToken()).startsWith("ref_").doesNotContain(".");
+
+        // Resolved from the cache the issuing node filled: no handle lookup, only the user load.
+        SqlStatementCounter.Result result = new SqlStatementCounter(entityManagerFactory).measure(() ->
+                me(tokens.accessToken()).andExpect(status().isOk()).andExpect(jsonPath("$.username").value("reference-user")));
+        assertThat(result.queries()).as(result.toString()).doesNotContain("AccessHandle");
+        introspect(tokens.accessToken())
+                .andExpect(jsonPath("$.active").value(true))
+                .andExpect(jsonPath("$.sub").value("reference-user"))
+                .andExpect(jsonPath("$.roles[0]").value("ROLE_USER"));
+
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + tokens.accessToken()))
+                .andExpect(status().isOk());
+
+        me(tokens.accessToken()).andExpect(status().isUnauthorized());
+        introspect(tokens.accessToken()).andExpect(jsonPath("$.active").value(false));
+    }
+
+    @Test
+    void refreshKeepsTheSessionFormat() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("reference-refresher");
+        AuthClient.Tokens tokens = client.loginWithFormat("reference-refresher", "reference");
+
+        AuthClient.Tokens refreshed = client.refresh(tokens.refreshCookie());
+
+        assertThat(refreshed.accessToken()).startsWith("ref_").isNotEqualTo(tokens.accessToken());
+        me(refreshed.accessToken()).andExpect(status().isOk());
+    }
+
+    @Test
+    void referenceOnlyPathsRejectJwts() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("reference-only-user");
+        String jwt = client.loginWithFormat("reference-only-user", "jwt").accessToken();
+        String handle = client.loginWithFormat("reference-only-user", "reference").accessToken();
+
+        mockMvc.perform(get("/api/user/sessions").header("Authorization", "Bearer " + jwt)).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/user/sessions").header("Authorization", "Bearer " + handle)).andExpect(status().isOk());
+        me(jwt).andExpect(status().isOk());
+    }
+
+    @Test
+    void revocationOnAnotherNodeEvictsTheCachedToken() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("reference-remote");
+        String handle = client.loginWithFormat("reference-remote", "reference").accessToken();
+        me(handle).andExpect(status().isOk());
+
+        // What another node does on logout: revoke the row, then broadcast the hash.
+        String handleHash = tokenHashingService.hashToken(handle);
+        transactionTemplate.executeWithoutResult(status -> accessHandleRepository.revokeByHandle(handleHash));
+        me(handle).andExpect(status().isOk());
+        referenceTokenCache.onInvalidation(new InvalidationEvent(InvalidationType.ACCESS_HANDLE, handleHash));
+
+        me(handle).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        new AuthClient(mockMvc).register("reference-format");
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"reference-format\",\"password\":\"" + AuthClient.PASSWORD
+                                + "\",\"tokenFormat\":\"saml\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions me(String accessToken) throws Exception {
+        return mockMvc.perform(get("/api/user/me").header("Authorization", "Bearer " + accessToken));
+    }
+
+    private ResultActions introspect(String token) throws Exception {
+        return mockMvc.perform(post("/api/auth/introspect")
+                .header(AuthClient.INTROSPECTION_HEADER, AuthClient.INTROSPECTION_SECRET)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("token", token));
+    }
+}
@@ -0,0 +1,66 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.server-timing.token=timing-secret")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerTimingTests {
+    private static final String TOKEN_HEADER = "X-Server-Timing-Token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void privilegedRequestsGetAPhaseBreakdown() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("timed-user");
+
+        String loginTiming = mockMvc.perform(login("timed-user").header(TOKEN_HEADER, "timing-secret"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty())
+                .andReturn().getResponse().getHeader("Server-Timing");
+        assertThat(loginTiming).contains("authenticate;dur=", "user_load;dur=", "password_match;dur=",
+                "jwt_sign;dur=", "refresh_create;dur=", "total;dur=");
+
+        String accessToken = client.login("timed-user").accessToken();
+        String meTiming = mockMvc.perform(get("/api/user/me")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header(TOKEN_HEADER, "timing-secret"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Server-Timing");
+        assertThat(meTiming).contains("jwt_verify;dur=", "filter_authentication;dur=", "total;dur=");
+    }
+
+    @Test
+    void otherRequestsAreNotTimed() throws Exception {
+        new AuthClient(mockMvc).register("untimed-user");
+
+        mockMvc.perform(login("untimed-user"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Server-Timing"));
+        mockMvc.perform(login("untimed-user").header(TOKEN_HEADER, "wrong-secret"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Server-Timing"));
+    }
+
+    private static MockHttpServletRequestBuilder login(String username) {
+        return post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"" + AuthClient.PASSWORD + "\"}");
+    }
+}
@@ -0,0 +1,108 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.opticoretechnologies.rest.identity.entity.RefreshToken;
+import com.opticoretechnologies.rest.identity.service.RefreshTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.security.sessions.max-per-user=3",
+        "app.security.sessions.max-per-device=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SessionManagementTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Test
+    void oldestSessionsAreRevokedPerDeviceAndPerUser() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("capped-user");
+
+        AuthClient.Tokens phone1 = client.loginFrom("capped-user", "phone");
+        AuthClient.Tokens phone2 = client.loginFrom("capped-user", "phone");
+        AuthClient.Tokens phone3 = client.loginFrom("capped-user", "phone");
+        // Two sessions per device: the first phone session went.
+        assertRefreshRejected(phone1);
+
+        AuthClient.Tokens laptop = client.loginFrom("capped-user", "laptop");
+        AuthClient.Tokens tablet = client.loginFrom("capped-user", "tablet");
+        // Three sessions per user: phone2 was the oldest of phone2, phone3 and laptop.
+        assertRefreshRejected(phone2);
+
+        List<String> devices = JsonPath.read(sessions(tablet), "$[*].deviceInfo");
+        assertThat(devices).hasSize(3);
+        assertThat(devices.get(0)).contains("tablet");
+        assertThat(devices.get(1)).contains("laptop");
+        assertThat(devices.get(2)).contains("phone");
+
+        // Rotation replaces a session and never evicts another one.
+        AuthClient.Tokens rotated = client.refresh(phone3.refreshCookie());
+        client.refresh(laptop.refreshCookie());
+        assertThat(JsonPath.<List<String>>read(sessions(rotated), "$[*].id")).hasSize(3);
+    }
+
+    @Test
+    void sessionsCanBeListedAndRevoked() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("session-user");
+        AuthClient.Tokens other = client.loginFrom("session-user", "other-device");
+        AuthClient.Tokens current = client.loginFrom("session-user", "this-device");
+
+        String body = sessions(current);
+        assertThat(JsonPath.<List<Boolean>>read(body, "$[*].current")).containsExactly(true, false);
+        String otherId = JsonPath.read(body, "$[1].id");
+
+        mockMvc.perform(delete("/api/user/sessions/" + otherId).header("Authorization", "Bearer " + current.accessToken()))
+                .andExpect(status().isNoContent());
+        assertRefreshRejected(other);
+        assertThat(JsonPath.<List<String>>read(sessions(current), "$[*].id")).hasSize(1);
+
+        mockMvc.perform(delete("/api/user/sessions/" + UUID.randomUUID()).header("Authorization", "Bearer " + current.accessToken()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/user/sessions")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void aTokenReadBeforeItWasRotatedCannotBeRotatedOrRevokedAgain() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("replay-user");
+        AuthClient.Tokens tokens = client.login("replay-user");
+        // What a lagging replica still returns after the rotation below.
+        RefreshToken stale = refreshTokenService.validateRefreshToken(tokens.refreshCookie().getValue()).orElseThrow();
+        AuthClient.Tokens rotated = client.refresh(tokens.refreshCookie());
+
+        assertThat(refreshTokenService.rotateRefreshToken(stale)).isEmpty();
+        assertThat(refreshTokenService.revokeRefreshToken(tokens.refreshCookie().getValue())).isEmpty();
+        assertThat(JsonPath.<List<String>>read(sessions(rotated), "$[*].id")).hasSize(1);
+    }
+
+    private String sessions(AuthClient.Tokens tokens) throws Exception {
+        return mockMvc.perform(get("/api/user/sessions")
+                        .header("Authorization", "Bearer " + tokens.accessToken())
+                        .cookie(tokens.refreshCookie()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private void assertRefreshRejected(AuthClient.Tokens tokens) throws Exception {
+        mockMvc.perform(post("/api/auth/refresh").cookie(tokens.refreshCookie())).andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,44 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import com.opticoretechnologies.rest.identity.service.EntityCacheEvictor;
+import com.opticoretechnologies.rest.identity.support.SqlStatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.security.jwt.stateless=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatelessAuthenticationQueryCountTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private EntityCacheEvictor entityCacheEvictor;
+
+    @Test
+    void bearerRequestIssuesNoSqlEvenWithColdCaches() throws Exception {
+        AuthClient authClient = new AuthClient(mockMvc);
+        authClient.register("stateless-me");
+        AuthClient.Tokens tokens = authClient.login("stateless-me");
+        entityCacheEvictor.evictAllUsers();
+
+        SqlStatementCounter.Result result = new SqlStatementCounter(entityManagerFactory).measure(() ->
+                mockMvc.perform(get("/api/user/me").header("Authorization", "Bearer " + tokens.accessToken()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.username").value("stateless-me"))
+                        .andExpect(jsonPath("$.email").value("stateless-me@example.com")));
+
+        assertThat(result.statements()).as(result.toString()).isZero();
+    }
+}
@@ -0,0 +1,118 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TokenIntrospectionTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void accessTokenIsActiveAndCachedUntilExpiry() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("introspected-user");
+        AuthClient.Tokens tokens = client.login("introspected-user");
+        double hitsBefore = cacheCount("hit");
+
+        for (int i = 0; i < 2; i++) {
+            introspect(tokens.accessToken())
+                    .andExpect(jsonPath("$.active").value(true))
+                    .andExpect(jsonPath("$.token_type").value("access_token"))
+                    .andExpect(jsonPath("$.sub").value("introspected-user"))
+                    .andExpect(jsonPath("$.roles[0]").value("ROLE_USER"))
+                    .andExpect(jsonPath("$.exp").isNumber());
+        }
+        assertThat(cacheCount("hit") - hitsBefore).isEqualTo(1);
+    }
+
+    @Test
+    void refreshTokenIsActiveUntilRevoked() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("introspected-refresh");
+        AuthClient.Tokens tokens = client.login("introspected-refresh");
+        String refreshToken = tokens.refreshCookie().getValue();
+
+        introspect(refreshToken)
+                .andExpect(jsonPath("$.active").value(true))
+                .andExpect(jsonPath("$.token_type").value("refresh_token"))
+                .andExpect(jsonPath("$.username").value("introspected-refresh"));
+
+        mockMvc.perform(post("/api/auth/logout").cookie(tokens.refreshCookie())).andExpect(status().isOk());
+        introspect(refreshToken).andExpect(content().json("{\"active\":false}", true));
+    }
+
+    @Test
+    void batchAnswersInRequestOrderAndRejectedTokensSayNothingElse() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("introspected-batch");
+        AuthClient.Tokens tokens = client.login("introspected-batch");
+
+        mockMvc.perform(post("/api/auth/introspect/batch")
+                        .header(AuthClient.INTROSPECTION_HEADER, AuthClient.INTROSPECTION_SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tokens\":[\"garbage\",\"" + tokens.accessToken() + "\",\"a.b.c\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"active\":false},{\"active\":true},{\"active\":false}]"))
+                .andExpect(jsonPath("$[0].token_type").doesNotExist());
+
+        String tooMany = String.join(",", Collections.nCopies(101, "\"x\""));
+        mockMvc.perform(post("/api/auth/introspect/batch")
+                        .header(AuthClient.INTROSPECTION_HEADER, AuthClient.INTROSPECTION_SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tokens\":[" + tooMany + "]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/auth/introspect")
+                        .header(AuthClient.INTROSPECTION_HEADER, AuthClient.INTROSPECTION_SECRET)
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void callersWithoutTheClientSecretAreUnauthorized() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("introspected-anonymously");
+        AuthClient.Tokens tokens = client.login("introspected-anonymously");
+
+        mockMvc.perform(post("/api/auth/introspect")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("token", tokens.refreshCookie().getValue()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/auth/introspect/batch")
+                        .header(AuthClient.INTROSPECTION_HEADER, "wrong-secret")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tokens\":[\"" + tokens.accessToken() + "\"]}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private ResultActions introspect(String token) throws Exception {
+        return mockMvc.perform(post("/api/auth/introspect")
+                        .header(AuthClient.INTROSPECTION_HEADER, AuthClient.INTROSPECTION_SECRET)
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("token", token))
+                .andExpect(status().isOk());
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry.get("identity.introspection.cache").tag("result", result).counter().count();
+    }
+}
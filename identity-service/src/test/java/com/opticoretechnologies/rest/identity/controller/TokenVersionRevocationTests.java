@@ -0,0 +1,85 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationEvent;
+import com.opticoretechnologies.rest.identity.invalidation.InvalidationType;
+import com.opticoretechnologies.rest.identity.repository.UserRepository;
+import com.opticoretechnologies.rest.identity.service.TokenVersionRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TokenVersionRevocationTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Test
+    void passwordChangeRevokesEveryEarlierAccessToken() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("versioned-user");
+        String laptop = client.login("versioned-user").accessToken();
+        String phone = client.login("versioned-user").accessToken();
+        introspect(phone).andExpect(jsonPath("$.active").value(true));
+
+        MvcResult result = mockMvc.perform(patch("/api/user/update/password")
+                        .header("Authorization", "Bearer " + laptop)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentPassword\":\"" + AuthClient.PASSWORD + "\",\"newPassword\":\"password456\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andReturn();
+        String current = JsonPath.read(result.getResponse().getContentAsString(), "$.accessToken");
+
+        mockMvc.perform(get("/api/user/me").header("Authorization", "Bearer " + laptop)).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/user/me").header("Authorization", "Bearer " + phone)).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/user/me").header("Authorization", "Bearer " + current)).andExpect(status().isOk());
+        // The active answer for this token was cached before the bump.
+        introspect(phone).andExpect(jsonPath("$.active").value(false));
+        assertThat(userRepository.findByUsername("versioned-user").orElseThrow().getTokenVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void versionsFromOtherNodesOnlyMoveForward() {
+        UUID userId = UUID.randomUUID();
+
+        tokenVersionRegistry.onInvalidation(event(userId, 3));
+        tokenVersionRegistry.onInvalidation(event(userId, 2));
+
+        assertThat(tokenVersionRegistry.isCurrent(userId, 2)).isFalse();
+        assertThat(tokenVersionRegistry.isCurrent(userId, 3)).isTrue();
+        assertThat(tokenVersionRegistry.isCurrent(UUID.randomUUID(), 0)).isTrue();
+    }
+
+    private static InvalidationEvent event(UUID userId, int version) {
+        return new InvalidationEvent(InvalidationType.TOKEN_VERSION, TokenVersionRegistry.eventKey(userId, version));
+    }
+
+    private ResultActions introspect(String token) throws Exception {
+        return mockMvc.perform(post("/api/auth/introspect")
+                .header(AuthClient.INTROSPECTION_HEADER, AuthClient.INTROSPECTION_SECRET)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("token", token));
+    }
+}
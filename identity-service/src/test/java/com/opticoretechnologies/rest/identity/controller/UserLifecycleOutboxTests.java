@@ -0,0 +1,133 @@
+package com.opticoretechnologies.rest.identity.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.opticoretechnologies.rest.identity.outbox.InMemoryOutboxSink;
+import com.opticoretechnologies.rest.identity.outbox.OutboxEvent;
+import com.opticoretechnologies.rest.identity.outbox.OutboxEventType;
+import com.opticoretechnologies.rest.identity.outbox.OutboxRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserLifecycleOutboxTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM _outbox_events");
+        sink.clear();
+    }
+
+    @Test
+    void lifecycleEventsAreRecordedWithTheirChangeAndRelayedInOrder() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("outbox-user");
+        client.loginFrom("outbox-user", "other-device");
+        AuthClient.Tokens current = client.loginFrom("outbox-user", "this-device");
+
+        String sessions = mockMvc.perform(get("/api/user/sessions")
+                        .header("Authorization", "Bearer " + current.accessToken())
+                        .cookie(current.refreshCookie()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String otherId = JsonPath.read(sessions, "$[1].id");
+        mockMvc.perform(delete("/api/user/sessions/" + otherId).header("Authorization", "Bearer " + current.accessToken()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/auth/logout").cookie(client.loginFrom("outbox-user", "third-device").refreshCookie()))
+                .andExpect(status().isOk());
+        String renamed = mockMvc.perform(patch("/api/user/update/username")
+                        .header("Authorization", "Bearer " + current.accessToken())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newUsername\":\"outbox-renamed\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(patch("/api/user/update/password")
+                        .header("Authorization", "Bearer " + JsonPath.read(renamed, "$.accessToken"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentPassword\":\"" + AuthClient.PASSWORD + "\",\"newPassword\":\"password456\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(sink.events()).as("nothing is published before the relay runs").isEmpty();
+        assertThat(outboxRelay.drain()).isEqualTo(5);
+
+        List<OutboxEvent> events = sink.events();
+        assertThat(events).extracting(OutboxEvent::type).containsExactly(
+                OutboxEventType.USER_REGISTERED,
+                OutboxEventType.SESSION_REVOKED,
+                OutboxEventType.SESSION_REVOKED,
+                OutboxEventType.USERNAME_CHANGED,
+                OutboxEventType.PASSWORD_CHANGED);
+        assertThat(events).extracting(OutboxEvent::aggregateId).containsOnly(events.getFirst().aggregateId());
+        assertThat(JsonPath.<String>read(events.get(0).payload(), "$.email")).isEqualTo("outbox-user@example.com");
+        assertThat(JsonPath.<String>read(events.get(1).payload(), "$.sessionId")).isEqualTo(otherId);
+        assertThat(JsonPath.<String>read(events.get(2).payload(), "$.username")).as("logout").isEqualTo("outbox-user");
+        assertThat(JsonPath.<String>read(events.get(3).payload(), "$.oldUsername")).isEqualTo("outbox-user");
+        assertThat(JsonPath.<String>read(events.get(3).payload(), "$.username")).isEqualTo("outbox-renamed");
+        assertThat(JsonPath.<String>read(events.get(4).payload(), "$.username")).isEqualTo("outbox-renamed");
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void rolledBackChangesRecordNoEvent() throws Exception {
+        AuthClient client = new AuthClient(mockMvc);
+        client.register("outbox-rollback");
+        AuthClient.Tokens tokens = client.login("outbox-rollback");
+        jdbcTemplate.update("DELETE FROM _outbox_events");
+
+        mockMvc.perform(patch("/api/user/update/password")
+                        .header("Authorization", "Bearer " + tokens.accessToken())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentPassword\":\"wrong\",\"newPassword\":\"password456\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void rejectedBatchesStayInTheOutboxUntilTheSinkAcceptsThem() throws Exception {
+        new AuthClient(mockMvc).register("outbox-retry");
+        sink.failNext(1);
+
+        assertThat(outboxRelay.drain()).isZero();
+        assertThat(sink.events()).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM _outbox_events", Integer.class)).isEqualTo(1);
+        assertThat(outboxRelay.drain()).as("postponed by the retry backoff").isZero();
+
+        jdbcTemplate.update("UPDATE _outbox_events SET available_at = created_at");
+        assertThat(outboxRelay.drain()).isEqualTo(1);
+        assertThat(sink.events()).singleElement().satisfies(event -> {
+            assertThat(event.type()).isEqualTo(OutboxEventType.USER_REGISTERED);
+            assertThat(event.attempts()).isEqualTo(1);
+        });
+        assertThat(pending()).isZero();
+    }
+
+    private int pending() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM _outbox_events", Integer.class);
+    }
+}
@@ -0,0 +1,43 @@
+package com.opticoretechnologies.rest.identity.exceptionhandler;
+
+import com.opticoretechnologies.rest.identity.exception.TokenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+class ExpectedErrorLoggerTests {
+
+    @Test
+    void logsAtMostMaxPerSecondAndReportsSuppressedCount(CapturedOutput output) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AtomicLong clock = new AtomicLong();
+        ExpectedErrorLogger logger = new ExpectedErrorLogger(registry, 2, clock::get);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/refresh");
+
+        for (int i = 0; i < 5; i++) {
+            logger.log(HttpStatus.UNAUTHORIZED, new TokenException("token " + i), request);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        logger.log(HttpStatus.UNAUTHORIZED, new TokenException("token 5"), request);
+
+        assertThat(output.getOut()).contains("token 0", "token 1", "token 5").doesNotContain("token 2", "token 4");
+        assertThat(output.getOut()).contains("(3 similar suppressed)");
+        assertThat(registry.get("identity.http.expected_errors")
+                .tag("status", "401").tag("exception", "TokenException").counter().count()).isEqualTo(6);
+    }
+
+    @Test
+    void domainExceptionsDoNotCaptureStackTraces() {
+        assertThat(new TokenException("expired").getStackTrace()).isEmpty();
+    }
+}
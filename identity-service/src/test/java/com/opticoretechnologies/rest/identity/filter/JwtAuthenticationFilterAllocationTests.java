@@ -0,0 +1,101 @@
+package com.opticoretechnologies.rest.identity.filter;
+
+import com.opticoretechnologies.rest.identity.entity.Role;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import com.opticoretechnologies.rest.identity.service.JwkService;
+import com.opticoretechnologies.rest.identity.service.JwtService;
+import com.opticoretechnologies.rest.identity.service.RoleDictionary;
+import com.opticoretechnologies.rest.identity.service.TokenVersionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allocation budget for authenticating one bearer request, measured with the per-thread
+ * allocation counter of the HotSpot {@link com.sun.management.ThreadMXBean}. The budget is
+ * about 1.5x the measured value (21 KB); most of it is RS256 verification and claims parsing.
+ */
+class JwtAuthenticationFilterAllocationTests {
+    private static final long BYTES_PER_REQUEST_BUDGET = 32 * 1024;
+    private static final int WARMUP_ITERATIONS = 3_000;
+    private static final int MEASURED_ITERATIONS = 1_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final FilterChain chain = (request, response) -> { };
+
+    private JwtService jwtService;
+    private AuthMetrics authMetrics;
+    private User user;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        authMetrics = new AuthMetrics(new SimpleMeterRegistry());
+        jwtService = new JwtService(new JwkService(true, 2, authMetrics), authMetrics,
+                new RoleDictionary(List.of("ROLE_USER", "ROLE_ADMIN")), new TokenVersionRegistry());
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 900L);
+        Role role = Role.builder().id(UUID.randomUUID()).name("ROLE_USER").build();
+        user = User.builder().id(UUID.randomUUID()).username("alloc-user").password("x")
+                .email("alloc-user@example.com").roles(Set.of(role)).build();
+        request = new MockHttpServletRequest("GET", "/api/user/me");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticationWithUserLookupStaysWithinBudget() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, username -> user, null, authMetrics, false, List.of());
+        assertWithinBudget(filter);
+    }
+
+    @Test
+    void statelessAuthenticationStaysWithinBudget() throws Exception {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService, username -> {
+            throw new AssertionError("stateless mode must not load the user");
+        }, null, authMetrics, true, List.of());
+        assertWithinBudget(filter);
+    }
+
+    private void assertWithinBudget(JwtAuthenticationFilter filter) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            authenticateOnce(filter, response);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            authenticateOnce(filter, response);
+        }
+        long perRequest = (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_ITERATIONS;
+
+        assertThat(perRequest)
+                .as("bytes allocated per authenticated request")
+                .isLessThanOrEqualTo(BYTES_PER_REQUEST_BUDGET);
+    }
+
+    private void authenticateOnce(JwtAuthenticationFilter filter, MockHttpServletResponse response) throws Exception {
+        filter.doFilter(request, response, chain);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,67 @@
+package com.opticoretechnologies.rest.identity.invalidation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheInvalidationBusTests {
+    private RecordingListener nodeAListener;
+    private RecordingListener nodeBListener;
+    private LocalInvalidationTransport nodeBTransport;
+    private CacheInvalidationBus nodeA;
+
+    @BeforeEach
+    void setUp() {
+        LocalInvalidationTransport.Hub hub = new LocalInvalidationTransport.Hub();
+        nodeAListener = new RecordingListener();
+        nodeBListener = new RecordingListener();
+        nodeBTransport = new LocalInvalidationTransport(hub);
+        // Long windows: the tests flush explicitly.
+        nodeA = new CacheInvalidationBus(new LocalInvalidationTransport(hub), List.of(nodeAListener), 60_000, 100);
+        CacheInvalidationBus nodeB = new CacheInvalidationBus(nodeBTransport, List.of(nodeBListener), 60_000, 100);
+        nodeA.start();
+        nodeB.start();
+    }
+
+    @Test
+    void eventsReachOtherNodesButNotTheSender() {
+        nodeA.publish(InvalidationType.USER, "42");
+        nodeA.flush();
+
+        assertThat(nodeBListener.events).containsExactly(new InvalidationEvent(InvalidationType.USER, "42"));
+        assertThat(nodeAListener.events).isEmpty();
+    }
+
+    @Test
+    void duplicateEventsWithinWindowAreCoalesced() {
+        nodeA.publish(InvalidationType.USER, "42");
+        nodeA.publish(InvalidationType.USER, "42");
+        nodeA.publish(InvalidationType.USER_RENAMED, "42");
+        nodeA.flush();
+
+        assertThat(nodeBListener.events).containsExactlyInAnyOrder(
+                new InvalidationEvent(InvalidationType.USER, "42"),
+                new InvalidationEvent(InvalidationType.USER_RENAMED, "42"));
+    }
+
+    @Test
+    void overflowCollapsesIntoFullResync() {
+        IntStream.range(0, 150).forEach(i -> nodeA.publish(InvalidationType.USER, i));
+        nodeA.flush();
+
+        assertThat(nodeBListener.events).isEmpty();
+        assertThat(nodeBListener.resyncs).hasValue(1);
+    }
+
+    @Test
+    void reconnectTriggersLocalResync() {
+        nodeBTransport.simulateReconnect();
+
+        assertThat(nodeBListener.resyncs).hasValue(1);
+        assertThat(nodeAListener.resyncs).hasValue(0);
+    }
+}
@@ -0,0 +1,50 @@
+package com.opticoretechnologies.rest.identity.invalidation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs against a local PostgreSQL, e.g. the one from docker-compose:
+ * {@code IDENTITY_TEST_POSTGRES_URL=jdbc:postgresql://localhost:5432/identity_db
+ * IDENTITY_TEST_POSTGRES_USER=iammahbubalam IDENTITY_TEST_POSTGRES_PASSWORD=root mvn test}
+ */
+@EnabledIfEnvironmentVariable(named = "IDENTITY_TEST_POSTGRES_URL", matches = ".+")
+class PostgresNotifyInvalidationTransportTests {
+    private static final String URL = System.getenv("IDENTITY_TEST_POSTGRES_URL");
+    private static final String USER = System.getenv("IDENTITY_TEST_POSTGRES_USER");
+    private static final String PASSWORD = System.getenv("IDENTITY_TEST_POSTGRES_PASSWORD");
+
+    @Test
+    void invalidationsTravelThroughListenNotify() {
+        RecordingListener receiving = new RecordingListener();
+        CacheInvalidationBus sender = bus(new RecordingListener());
+        CacheInvalidationBus receiver = bus(receiving);
+        sender.start();
+        receiver.start();
+        try {
+            // Give the listener thread time to issue LISTEN.
+            await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+                sender.publish(InvalidationType.USER, "42");
+                sender.flush();
+                assertThat(receiving.events).contains(new InvalidationEvent(InvalidationType.USER, "42"));
+            });
+        } finally {
+            sender.stop();
+            receiver.stop();
+        }
+    }
+
+    private static CacheInvalidationBus bus(InvalidationListener listener) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, USER, PASSWORD);
+        PostgresNotifyInvalidationTransport transport = new PostgresNotifyInvalidationTransport(
+                dataSource, URL, USER, PASSWORD, "identity_cache_invalidation_test");
+        return new CacheInvalidationBus(transport, List.of(listener), 60_000, 100);
+    }
+}
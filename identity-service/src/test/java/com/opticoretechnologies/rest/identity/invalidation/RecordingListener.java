@@ -0,0 +1,20 @@
+package com.opticoretechnologies.rest.identity.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RecordingListener implements InvalidationListener {
+    final List<InvalidationEvent> events = new CopyOnWriteArrayList<>();
+    final AtomicInteger resyncs = new AtomicInteger();
+
+    @Override
+    public void onInvalidation(InvalidationEvent event) {
+        events.add(event);
+    }
+
+    @Override
+    public void onResync() {
+        resyncs.incrementAndGet();
+    }
+}
@@ -0,0 +1,100 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.entity.Role;
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.metrics.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceVerificationTests {
+    private SimpleMeterRegistry registry;
+    private JwkService jwkService;
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AuthMetrics authMetrics = new AuthMetrics(registry);
+        jwkService = new JwkService(true, 1, authMetrics);
+        jwtService = new JwtService(jwkService, authMetrics,
+                new RoleDictionary(List.of("ROLE_USER", "ROLE_ADMIN")), new TokenVersionRegistry());
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", 60L);
+        user = User.builder().username("alice").password("x").email("alice@example.com").build();
+    }
+
+    @Test
+    void validTokenIsAcceptedAndCounted() {
+        String token = jwtService.generateToken(user);
+
+        TokenVerification verification = jwtService.verifyToken(token);
+
+        assertThat(verification.outcome()).isEqualTo(TokenVerification.Outcome.VALID);
+        assertThat(verification.claims().getSubject()).isEqualTo("alice");
+        assertThat(jwtService.isTokenValid(token, user)).isTrue();
+        assertThat(count("valid")).isEqualTo(2);
+        assertThat(registry.get("identity.jwt.sign").timer().count()).isEqualTo(1);
+        assertThat(registry.get("identity.jwt.verify").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectedTokensAreCountedByOutcome() {
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        assertThat(jwtService.verifyToken(tampered).outcome()).isEqualTo(TokenVerification.Outcome.BAD_SIGNATURE);
+        assertThat(jwtService.verifyToken("not-a-jwt").outcome()).isEqualTo(TokenVerification.Outcome.MALFORMED);
+
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiration", -1L);
+        String expired = jwtService.generateToken(user);
+        assertThat(jwtService.verifyToken(expired).outcome()).isEqualTo(TokenVerification.Outcome.EXPIRED);
+
+        // With one key kept, rotation drops the key that signed the earlier tokens.
+        jwkService.rotateKeys();
+        assertThat(jwtService.verifyToken(token).outcome()).isEqualTo(TokenVerification.Outcome.UNKNOWN_KID);
+
+        assertThat(count("bad_signature")).isEqualTo(1);
+        assertThat(count("malformed")).isEqualTo(1);
+        assertThat(count("expired")).isEqualTo(1);
+        assertThat(count("unknown_kid")).isEqualTo(1);
+        assertThat(count("valid")).isZero();
+        assertThat(registry.get("identity.jwk.rotation").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void compactRolesAreSmallerAndDecodeToTheSameAuthorities() {
+        User admin = User.builder().username("alice").password("x").email("alice@example.com")
+                .roles(Set.of(role("ROLE_USER"), role("ROLE_ADMIN"))).build();
+        String plain = jwtService.generateToken(admin);
+        ReflectionTestUtils.setField(jwtService, "compactRoles", true);
+        String compact = jwtService.generateToken(admin);
+
+        assertThat(compact.length()).isLessThan(plain.length());
+        TokenVerification verification = jwtService.verifyToken(compact);
+        assertThat(verification.claims().getClaim("rb")).isNotNull();
+        assertThat(jwtService.toPrincipal(verification.claims()).getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+        // Tokens issued before the switch keep working.
+        assertThat(jwtService.toPrincipal(jwtService.verifyToken(plain).claims()).getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    }
+
+    private static Role role(String name) {
+        return Role.builder().id(UUID.randomUUID()).name(name).build();
+    }
+
+    private double count(String outcome) {
+        return registry.get("identity.jwt.verification").tag("outcome", outcome).counter().count();
+    }
+}
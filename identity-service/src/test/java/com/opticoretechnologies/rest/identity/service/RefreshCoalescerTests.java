@@ -0,0 +1,90 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.exception.TokenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshCoalescerTests {
+    private static final int CALLERS = 8;
+
+    @Test
+    void concurrentCallersShareOneRotation() throws Exception {
+        RefreshCoalescer coalescer = new RefreshCoalescer(5000, new SimpleMeterRegistry());
+        AtomicInteger rotations = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<RefreshCoalescer.Rotation> leader = executor.submit(() -> coalescer.rotate("hash", () -> {
+                rotations.incrementAndGet();
+                leaderStarted.countDown();
+                await(release);
+                return new RefreshCoalescer.Rotation("access", "refresh");
+            }));
+            assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<RefreshCoalescer.Rotation>> followers = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                followers.add(executor.submit(() -> coalescer.rotate("hash", () -> {
+                    rotations.incrementAndGet();
+                    return new RefreshCoalescer.Rotation("other", "other");
+                })));
+            }
+            release.countDown();
+
+            RefreshCoalescer.Rotation expected = leader.get(5, TimeUnit.SECONDS);
+            for (Future<RefreshCoalescer.Rotation> follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(expected);
+            }
+        }
+        assertThat(rotations).hasValue(1);
+
+        // A late duplicate within the grace window still gets the same pair.
+        assertThat(coalescer.rotate("hash", () -> new RefreshCoalescer.Rotation("late", "late")).accessToken())
+                .isEqualTo("access");
+    }
+
+    @Test
+    void failuresAreNotRemembered() {
+        RefreshCoalescer coalescer = new RefreshCoalescer(5000, new SimpleMeterRegistry());
+
+        assertThatThrownBy(() -> coalescer.rotate("hash", () -> {
+            throw new TokenException("Refresh token is invalid or expired!");
+        })).isInstanceOf(TokenException.class);
+
+        assertThat(coalescer.rotate("hash", () -> new RefreshCoalescer.Rotation("access", "refresh")).accessToken())
+                .isEqualTo("access");
+    }
+
+    @Test
+    void rotationsAreForgottenAfterTheGraceWindow() throws Exception {
+        RefreshCoalescer coalescer = new RefreshCoalescer(20, new SimpleMeterRegistry());
+        coalescer.rotate("hash", () -> new RefreshCoalescer.Rotation("first", "first"));
+
+        Thread.sleep(50);
+        coalescer.purgeExpired();
+
+        assertThat(coalescer.rotate("hash", () -> new RefreshCoalescer.Rotation("second", "second")).accessToken())
+                .isEqualTo("second");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoleDictionaryTests {
+    private final RoleDictionary dictionary = new RoleDictionary(List.of("ROLE_USER", "ROLE_ADMIN", "ROLE_AUDITOR"));
+
+    @Test
+    void rolesRoundTripThroughTheBitmask() {
+        RoleDictionary.Encoded encoded = dictionary.encode(authorities("ROLE_AUDITOR", "ROLE_USER", "ROLE_SUPPORT"));
+
+        assertThat(encoded.others()).containsExactly("ROLE_SUPPORT");
+        List<GrantedAuthority> decoded = dictionary.decode(dictionary.version(), encoded.bits(), encoded.others());
+        assertThat(decoded).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER", "ROLE_AUDITOR", "ROLE_SUPPORT");
+    }
+
+    @Test
+    void decodingSharesPrecomputedLists() {
+        String bits = dictionary.encode(authorities("ROLE_USER", "ROLE_ADMIN")).bits();
+
+        assertThat(dictionary.decode(dictionary.version(), bits, null))
+                .isSameAs(dictionary.decode(dictionary.version(), bits, List.of()));
+    }
+
+    @Test
+    void tokensFromAnEarlierDictionaryStillDecode() {
+        RoleDictionary earlier = new RoleDictionary(List.of("ROLE_USER", "ROLE_ADMIN"));
+        RoleDictionary.Encoded encoded = earlier.encode(authorities("ROLE_ADMIN"));
+
+        assertThat(dictionary.version()).isNotEqualTo(earlier.version());
+        assertThat(dictionary.decode(earlier.version(), encoded.bits(), null))
+                .extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void unknownVersionsAndOutOfRangeBitsAreRejected() {
+        RoleDictionary earlier = new RoleDictionary(List.of("ROLE_USER"));
+        String auditor = dictionary.encode(authorities("ROLE_AUDITOR")).bits();
+
+        assertThatThrownBy(() -> dictionary.decode("000000000000", auditor, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> dictionary.decode(earlier.version(), auditor, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void publishedFormListsRolesInBitOrder() {
+        assertThat(dictionary.toJsonObject())
+                .containsEntry("version", dictionary.version())
+                .containsEntry("roles", List.of("ROLE_USER", "ROLE_ADMIN", "ROLE_AUDITOR"));
+    }
+
+    private static List<GrantedAuthority> authorities(String... names) {
+        return Arrays.stream(names).<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+    }
+}
@@ -0,0 +1,90 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.dto.RegisterRequest;
+import com.opticoretechnologies.rest.identity.dto.UpdateUsernameRequest;
+import com.opticoretechnologies.rest.identity.repository.RoleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void warmUserLookupByUsernameIssuesNoSql() {
+        register("cached-user");
+        userDetailsService.loadUserByUsername("cached-user");
+
+        statistics.clear();
+        UserDetails user = userDetailsService.loadUserByUsername("cached-user");
+
+        assertThat(user.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void roleLookupByNameIsServedFromQueryCache() {
+        register("role-lookup-user");
+        roleRepository.findByName("ROLE_USER");
+
+        statistics.clear();
+        assertThat(roleRepository.findByName("ROLE_USER")).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void renamedUserIsNoLongerResolvableByOldUsername() {
+        register("before-rename");
+        userDetailsService.loadUserByUsername("before-rename");
+
+        UpdateUsernameRequest request = new UpdateUsernameRequest();
+        request.setNewUsername("after-rename");
+        userService.updateUsername("before-rename", request);
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("before-rename"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThat(userDetailsService.loadUserByUsername("after-rename").getUsername()).isEqualTo("after-rename");
+    }
+
+    private void register(String username) {
+        authService.register(RegisterRequest.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("password123")
+                .build());
+    }
+}
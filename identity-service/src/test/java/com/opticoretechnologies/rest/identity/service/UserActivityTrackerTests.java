@@ -0,0 +1,56 @@
+package com.opticoretechnologies.rest.identity.service;
+
+import com.opticoretechnologies.rest.identity.entity.User;
+import com.opticoretechnologies.rest.identity.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserActivityTrackerTests {
+    @Autowired
+    private UserActivityTracker tracker;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void activityIsCoalescedAndWrittenOnFlushOnly() {
+        User user = userRepository.save(User.builder().username("activity-user").email("activity@example.com").password("x").build());
+        Instant before = Instant.now();
+
+        tracker.recordLogin(user.getId());
+        tracker.recordSeen(user.getId());
+        tracker.recordSeen(user.getId());
+        assertThat(column(user.getId(), "last_login_at")).isNull();
+        assertThat(column(user.getId(), "last_seen_at")).isNull();
+
+        tracker.flush();
+
+        Instant lastLoginAt = column(user.getId(), "last_login_at");
+        Instant lastSeenAt = column(user.getId(), "last_seen_at");
+        assertThat(lastLoginAt).isAfterOrEqualTo(before.minusMillis(1));
+        assertThat(lastSeenAt).isAfterOrEqualTo(lastLoginAt);
+        assertThat(userRepository.findActivityById(user.getId()).orElseThrow().getLastSeenAt()).isEqualTo(lastSeenAt);
+
+        // Hibernate never writes the columns, so saving a stale copy keeps the flushed values.
+        user.setEmail("activity2@example.com");
+        userRepository.save(user);
+        assertThat(column(user.getId(), "last_seen_at")).isEqualTo(lastSeenAt);
+    }
+
+    private Instant column(UUID userId, String column) {
+        OffsetDateTime value = jdbcTemplate.queryForObject("SELECT " + column + " FROM _users WHERE id = ?", OffsetDateTime.class, userId);
+        return value == null ? null : value.toInstant();
+    }
+}
@@ -0,0 +1,49 @@
+package com.opticoretechnologies.rest.identity.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.Arrays;
+
+/**
+ * Counts the JDBC statements Hibernate prepares while an action runs, using the session
+ * factory statistics ({@code hibernate.generate_statistics}). Statistics are global, so only
+ * use it where nothing else touches the database concurrently, e.g. around one MockMvc call.
+ */
+public final class SqlStatementCounter {
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs the action and returns what it did to the database.
+     */
+    public Result measure(Action action) throws Exception {
+        statistics.clear();
+        action.run();
+        return new Result(statistics.getPrepareStatementCount(), statistics.getEntityFetchCount(),
+                statistics.getCollectionFetchCount(), Arrays.toString(statistics.getQueries()));
+    }
+
+    /**
+     * @param statements      JDBC statements prepared, the number budgets are written against
+     * @param entityFetches   lazy entity loads, the usual N+1 culprit
+     * @param collectionFetches lazy collection loads
+     * @param queries         the HQL/JPQL queries executed, for failure messages
+     */
+    public record Result(long statements, long entityFetches, long collectionFetches, String queries) {
+        @Override
+        public String toString() {
+            return statements + " statements (" + entityFetches + " lazy entity fetches, "
+                    + collectionFetches + " lazy collection fetches), queries: " + queries;
+        }
+    }
+}